@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures time from `docker run` to the first successful API request for each image variant.
+#
+# Usage: scripts/measure-startup.sh [variant...]    (default: jvm cds native)
+# Requires Docker and the Datastore emulator from docker-compose.yml running on port 8081.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+if [ "$#" -gt 0 ]; then
+  VARIANTS=("$@")
+else
+  VARIANTS=(jvm cds native)
+fi
+PORT=18080
+PROBE_URL="http://localhost:${PORT}/api/transactions/distinct-notes?owner=startup-probe"
+TIMEOUT_SECONDS=120
+
+now_ms() {
+  date +%s%3N
+}
+
+results=()
+for variant in "${VARIANTS[@]}"; do
+  image="lazyspender-backend:${variant}"
+  echo "Building ${image}..."
+  docker build --quiet --target "${variant}" -t "${image}" . > /dev/null
+
+  container="lazyspender-startup-${variant}"
+  docker rm -f "${container}" > /dev/null 2>&1 || true
+
+  start=$(now_ms)
+  docker run -d --name "${container}" -p "${PORT}:8080" \
+    --add-host=host.docker.internal:host-gateway \
+    -e SPRING_CLOUD_GCP_DATASTORE_HOST=host.docker.internal:8081 \
+    -e SPRING_CLOUD_GCP_PROJECT_ID=lazyspender-local \
+    -e LAZYSPENDER_PLANNED_PAYMENTS_AUTO_CONFIRM_ENABLED=false \
+    "${image}" > /dev/null
+
+  # The probe reads from Datastore, so it only succeeds once the whole stack is usable
+  elapsed=""
+  deadline=$((start + TIMEOUT_SECONDS * 1000))
+  while [ "$(now_ms)" -lt "${deadline}" ]; do
+    if curl -sf -o /dev/null "${PROBE_URL}"; then
+      elapsed=$(( $(now_ms) - start ))
+      break
+    fi
+    sleep 0.05
+  done
+
+  rss=$(docker stats --no-stream --format '{{.MemUsage}}' "${container}" | cut -d/ -f1 | xargs)
+  docker rm -f "${container}" > /dev/null
+
+  if [ -z "${elapsed}" ]; then
+    results+=("${variant}: no successful request within ${TIMEOUT_SECONDS}s")
+  else
+    results+=("${variant}: first successful request after ${elapsed} ms, memory ${rss}")
+  fi
+done
+
+echo
+printf '%s\n' "${results[@]}"
@@ -0,0 +1,55 @@
+package com.lazyspender.backend;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Deterministic transaction data for the benchmarks, shaped like a real owner's history.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SyntheticTransactions {
+
+    private static final String[] ACCOUNTS = {"Cash", "BPI Savings", "GCash", "Credit Card"};
+    private static final String[] CATEGORIES = {"Food", "Transport", "Bills", "Salary", "Shopping", "Health"};
+
+    /**
+     * Generate transactions spread evenly over a range, ordered by date
+     *
+     * @param count Number of transactions
+     * @param from  Date of the first transaction
+     * @param to    Date of the last transaction
+     * @param seed  Random seed, so every fork sees the same data
+     * @return Date-ordered transactions
+     */
+    public static List<Transaction> generate(int count, Instant from, Instant to, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long fromMillis = from.toEpochMilli();
+        long step = Math.max(1, (to.toEpochMilli() - fromMillis) / Math.max(1, count));
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Roughly one income for every nine expenses
+            boolean income = random.nextInt(10) == 0;
+            transactions.add(Transaction.builder()
+                    .id("tx-" + i)
+                    .owner("benchmark")
+                    .account(ACCOUNTS[random.nextInt(ACCOUNTS.length)])
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .amount(income ? 1_000 + random.nextInt(50_000) : 10 + random.nextInt(5_000))
+                    .note("Synthetic " + i)
+                    .date(Instant.ofEpochMilli(fromMillis + i * step))
+                    .currency("PHP")
+                    .type(income ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .build());
+        }
+        return transactions;
+    }
+}
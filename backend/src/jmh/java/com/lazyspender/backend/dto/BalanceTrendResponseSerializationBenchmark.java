@@ -0,0 +1,71 @@
+package com.lazyspender.backend.dto;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+/**
+ * Serializes trends the size the endpoints return: 12 weekly, 12 monthly and ten years of monthly points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BalanceTrendResponseSerializationBenchmark {
+
+    @Param({"12", "120"})
+    private int dataPointCount;
+
+    private ObjectWriter writer;
+    private BalanceTrendResponse response;
+
+    @Setup
+    public void setUp() {
+        // Same settings Spring Boot applies to the MVC ObjectMapper
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(BalanceTrendResponse.class);
+
+        ZonedDateTime month = DateTimeUtils.toUtcZonedDateTime(Instant.parse("2015-01-01T00:00:00Z"));
+        List<BalanceTrendDataPoint> dataPoints = new ArrayList<>(dataPointCount);
+        double balance = 0;
+        for (int i = 0; i < dataPointCount; i++) {
+            balance += 12_345.67;
+            dataPoints.add(BalanceTrendDataPoint.builder()
+                    .label("Jan 2015")
+                    .timestamp(month.plusMonths(i).toInstant())
+                    .balance(balance)
+                    .income(50_000)
+                    .expense(37_654.33)
+                    .build());
+        }
+        response = BalanceTrendResponse.builder()
+                .totalBalance(balance)
+                .currency("PHP")
+                .dataPoints(dataPoints)
+                .yAxisConfig(YAxisConfig.builder().minValue(0).maxValue(1_500_000).interval(300_000).build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,38 @@
+package com.lazyspender.backend.mapper;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lazyspender.backend.SyntheticTransactions;
+import com.lazyspender.backend.dto.TransactionResponse;
+import com.lazyspender.backend.model.Transaction;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionMapperBenchmark {
+
+    private final TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
+
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        Instant date = Instant.parse("2024-02-29T13:45:30Z");
+        transaction = SyntheticTransactions.generate(1, date, date, 42).get(0);
+    }
+
+    @Benchmark
+    public TransactionResponse toResponse() {
+        return transactionMapper.toResponse(transaction);
+    }
+}
@@ -0,0 +1,102 @@
+package com.lazyspender.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.ByteArrayResource;
+
+import com.lazyspender.backend.SyntheticTransactions;
+import com.lazyspender.backend.config.FxProperties;
+import com.lazyspender.backend.dto.BalanceTrendDataPoint;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TrendPeriod;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+/**
+ * Bucketing cost of a balance trend, i.e. the body of {@code BalanceTrendService.calculateDataPoints},
+ * over the same date ranges the service queries for each period. The converted variant runs the same
+ * rows with a third of them in USD, converted into PHP through the day-indexed rate table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BalanceTrendAccumulatorBenchmark {
+
+    // FROM_START has no fixed range, so it gets five years of history
+    private static final int FROM_START_YEARS = 5;
+
+    @Param({"1000", "100000", "1000000"})
+    private int transactionCount;
+
+    @Param({"FROM_START", "LAST_YEAR", "LAST_12_WEEKS"})
+    private TrendPeriod period;
+
+    private List<Transaction> transactions;
+    private List<Transaction> mixedCurrencyTransactions;
+    private FxRateTable fxRateTable;
+    private Instant startDate;
+    private Instant endDate;
+
+    @Setup
+    public void setUp() {
+        endDate = DateTimeUtils.endOfTodayUtc();
+        ZonedDateTime now = DateTimeUtils.toUtcZonedDateTime(DateTimeUtils.nowUtc());
+        startDate = switch (period) {
+            case FROM_START -> now.minusYears(FROM_START_YEARS).toInstant();
+            case LAST_YEAR -> now.minusYears(1).toInstant();
+            case LAST_12_WEEKS -> now.minusWeeks(12).toInstant();
+        };
+        transactions = SyntheticTransactions.generate(transactionCount, startDate, endDate, 42);
+
+        mixedCurrencyTransactions = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            mixedCurrencyTransactions.add(i % 3 == 0 ? transaction.toBuilder().currency("USD").build() : transaction);
+        }
+
+        // One USD quote per day of the range, drifting so no two days share a rate
+        StringBuilder rates = new StringBuilder("date,currency,rate\n");
+        LocalDate day = DateTimeUtils.toUtcLocalDate(startDate);
+        for (int i = 0; !day.isAfter(DateTimeUtils.toUtcLocalDate(endDate)); i++, day = day.plusDays(1)) {
+            rates.append(day).append(",USD,").append(55 + (i % 100) / 100.0).append('\n');
+        }
+        FxProperties fxProperties = new FxProperties();
+        fxProperties.setSource(FxProperties.RateSource.FILE);
+        fxProperties.setRatesFile(new ByteArrayResource(rates.toString().getBytes(StandardCharsets.UTF_8)));
+        fxRateTable = new FxRateTable(null, fxProperties);
+        fxRateTable.series("USD", "PHP");
+    }
+
+    @Benchmark
+    public List<BalanceTrendDataPoint> calculateDataPoints() {
+        BalanceTrendAccumulator accumulator = new BalanceTrendAccumulator(period, startDate, endDate, 0);
+        for (Transaction transaction : transactions) {
+            accumulator.add(transaction);
+        }
+        return accumulator.finish();
+    }
+
+    @Benchmark
+    public List<BalanceTrendDataPoint> calculateConvertedDataPoints() {
+        FxConverter converter = fxRateTable.converterTo("PHP");
+        BalanceTrendAccumulator accumulator = new BalanceTrendAccumulator(period, startDate, endDate, Map.of(), converter);
+        for (Transaction transaction : mixedCurrencyTransactions) {
+            accumulator.add(transaction, converter.convert(transaction));
+        }
+        return accumulator.finish();
+    }
+}
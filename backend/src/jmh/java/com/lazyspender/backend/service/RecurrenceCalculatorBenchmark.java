@@ -0,0 +1,51 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.model.RecurrenceType;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecurrenceCalculatorBenchmark {
+
+    private final RecurrenceCalculator recurrenceCalculator = new RecurrenceCalculator();
+
+    private PlannedPayment weekly;
+    private PlannedPayment monthly;
+    private Instant currentDate;
+
+    @Setup
+    public void setUp() {
+        weekly = PlannedPayment.builder()
+                .recurrenceType(RecurrenceType.WEEKLY)
+                .recurrenceValue("FRIDAY")
+                .build();
+        // Day 31 exercises the month-end clamping
+        monthly = PlannedPayment.builder()
+                .recurrenceType(RecurrenceType.MONTHLY)
+                .recurrenceValue("31")
+                .build();
+        currentDate = Instant.parse("2024-01-31T00:00:00Z");
+    }
+
+    @Benchmark
+    public Instant nextWeeklyDueDate() {
+        return recurrenceCalculator.calculateNextDueDate(weekly, currentDate);
+    }
+
+    @Benchmark
+    public Instant nextMonthlyDueDate() {
+        return recurrenceCalculator.calculateNextDueDate(monthly, currentDate);
+    }
+}
@@ -0,0 +1,69 @@
+package com.lazyspender.backend.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateTimeUtilsBenchmark {
+
+    private final Instant instant = Instant.parse("2024-02-29T13:45:30Z");
+    private final LocalDate localDate = LocalDate.of(2024, 2, 29);
+    private final String isoString = "2024-02-29T13:45:30Z";
+
+    @Benchmark
+    public ZonedDateTime toUtcZonedDateTime() {
+        return DateTimeUtils.toUtcZonedDateTime(instant);
+    }
+
+    @Benchmark
+    public LocalDate toUtcLocalDate() {
+        return DateTimeUtils.toUtcLocalDate(instant);
+    }
+
+    @Benchmark
+    public Instant toInstantStartOfDay() {
+        return DateTimeUtils.toInstantStartOfDay(localDate);
+    }
+
+    @Benchmark
+    public Instant startOfWeekUtc() {
+        return DateTimeUtils.startOfWeekUtc(instant);
+    }
+
+    @Benchmark
+    public Instant startOfMonthUtc() {
+        return DateTimeUtils.startOfMonthUtc(instant);
+    }
+
+    @Benchmark
+    public Instant nextDayOfWeek() {
+        return DateTimeUtils.nextDayOfWeek(instant, DayOfWeek.MONDAY);
+    }
+
+    @Benchmark
+    public Instant nextMonthDay() {
+        return DateTimeUtils.nextMonthDay(instant, 31);
+    }
+
+    @Benchmark
+    public long epochDayOf() {
+        return DateTimeUtils.epochDayOf(2024, 2, 29);
+    }
+
+    @Benchmark
+    public Instant parseInstant() {
+        return DateTimeUtils.parseInstant(isoString);
+    }
+}
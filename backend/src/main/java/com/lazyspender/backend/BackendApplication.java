@@ -2,10 +2,15 @@ package com.lazyspender.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import com.google.cloud.spring.data.datastore.repository.config.EnableDatastoreRepositories;
+import com.lazyspender.backend.config.NativeRuntimeHints;
 
 @SpringBootApplication
 @EnableDatastoreRepositories
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BackendApplication {
 
 	public static void main(String[] args) {
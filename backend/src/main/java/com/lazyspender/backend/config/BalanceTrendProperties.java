@@ -0,0 +1,34 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.balance-trend")
+public class BalanceTrendProperties {
+
+    /**
+     * Build trends from the pre-aggregated balance rollups instead of scanning raw transactions.
+     * Only enable once the rollups have been backfilled with the rebuild endpoint.
+     */
+    private boolean rollupsEnabled = false;
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum number of cached trend responses across all owners.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a cached trend is served after it was computed.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
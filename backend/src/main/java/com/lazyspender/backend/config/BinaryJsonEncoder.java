@@ -0,0 +1,49 @@
+package com.lazyspender.backend.config;
+
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encodes response bodies as CBOR or Smile for the endpoints that offer them. The binary converters are
+ * left out of the global message converters (see {@link WebConfig}), so no other endpoint negotiates them.
+ * Both mappers are built from the application's Jackson builder and share its settings.
+ */
+@Component
+public class BinaryJsonEncoder {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public BinaryJsonEncoder(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.cborMapper = builders.getObject().factory(new CBORFactory()).build();
+        this.smileMapper = builders.getObject().factory(new SmileFactory()).build();
+    }
+
+    /**
+     * @param mediaType {@link MediaType#APPLICATION_CBOR} or {@link #APPLICATION_SMILE}
+     * @return True if {@link #encode} can produce the type
+     */
+    public boolean supports(MediaType mediaType) {
+        return MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType) || APPLICATION_SMILE.equalsTypeAndSubtype(mediaType);
+    }
+
+    public byte[] encode(Object body, MediaType mediaType) {
+        ObjectMapper mapper = MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType) ? cborMapper : smileMapper;
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.lazyspender.backend.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Executor for blocking Datastore work that runs off the request thread.
+     * Callers bound their own concurrency; virtual threads keep idle waits cheap.
+     * Wrapped so task counts and durations show up as executor metrics, and so tasks
+     * count their Datastore work against the request that submitted them.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor(MeterRegistry meterRegistry) {
+        return ExecutorServiceMetrics.monitor(meterRegistry,
+                new RequestProfilePropagatingExecutor(Executors.newVirtualThreadPerTaskExecutor()), "virtualThreadExecutor");
+    }
+}
@@ -0,0 +1,46 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.fx")
+public class FxProperties {
+
+    /**
+     * Currency all rates are quoted against, and the currency of trends for owners holding several
+     * currencies when the request names none.
+     */
+    private String referenceCurrency = "PHP";
+
+    /**
+     * Where rates are read from.
+     */
+    private RateSource source = RateSource.DATASTORE;
+
+    /**
+     * CSV with a header row and the columns date (yyyy-MM-dd), currency and rate, used when the source is FILE.
+     * Rate is the number of reference currency units one unit of the currency is worth.
+     */
+    private Resource ratesFile;
+
+    /**
+     * Maximum number of currency pairs whose daily rate series are kept in memory.
+     */
+    private long seriesCacheSize = 256;
+
+    /**
+     * How often the rates are read again. Intervals are counted from the epoch, so every instance
+     * switches to new rates at the same time and trend ETags change with them.
+     */
+    private Duration refreshInterval = Duration.ofHours(6);
+
+    public enum RateSource {
+        DATASTORE,
+        FILE
+    }
+}
@@ -0,0 +1,39 @@
+package com.lazyspender.backend.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.lazyspender.backend.util.RequestProfile;
+
+/**
+ * Adds the time spent in MapStruct mappers to the current {@link RequestProfile}.
+ */
+@Component
+public class MapperTimingPostProcessor implements BeanPostProcessor {
+
+    private static final String MAPPER_PACKAGE = "com.lazyspender.backend.mapper";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!bean.getClass().getPackageName().equals(MAPPER_PACKAGE)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            RequestProfile profile = RequestProfile.current();
+            if (profile == null) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                profile.recordMapping(System.nanoTime() - start);
+            }
+        });
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,65 @@
+package com.lazyspender.backend.config;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import com.lazyspender.backend.mapper.PlannedPaymentMapper;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.mapper.UserMapper;
+
+/**
+ * Reflection, proxy and resource hints for the GraalVM native image that Spring AOT can't infer:
+ * <ul>
+ *   <li>DTOs, including those only reached through {@code ResponseEntity<?>} or a hand-built ObjectWriter</li>
+ *   <li>Datastore entities, which the mapping layer reads and writes reflectively</li>
+ *   <li>JDK proxies that {@link MapperTimingPostProcessor} puts around the MapStruct mappers</li>
+ * </ul>
+ * Packages are scanned while the image is built, so new DTOs and entities are covered automatically.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String DTO_PACKAGE = "com.lazyspender.backend.dto";
+    private static final String MODEL_PACKAGE = "com.lazyspender.backend.model";
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> dto : classesIn(DTO_PACKAGE, classLoader)) {
+            bindingHints.registerReflectionHints(hints.reflection(), dto);
+        }
+        for (Class<?> entity : classesIn(MODEL_PACKAGE, classLoader)) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+
+        for (Class<?> mapper : new Class<?>[] {TransactionMapper.class, PlannedPaymentMapper.class, UserMapper.class}) {
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(mapper));
+        }
+
+        // Error messages of the CSV import
+        hints.resources().registerResourceBundle("opencsv");
+    }
+
+    private static Iterable<Class<?>> classesIn(String packageName, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                // Records, enums and Lombok classes alike, not only concrete components
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+
+        return scanner.findCandidateComponents(packageName).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(className -> ClassUtils.resolveClassName(className, classLoader))
+                .toList();
+    }
+}
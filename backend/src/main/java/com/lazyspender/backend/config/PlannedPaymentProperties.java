@@ -0,0 +1,58 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.planned-payments")
+public class PlannedPaymentProperties {
+
+    private AutoConfirm autoConfirm = new AutoConfirm();
+
+    @Data
+    public static class AutoConfirm {
+
+        /**
+         * Run the auto-confirmation engine on a schedule.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between the end of one run and the start of the next.
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of planned payments processed at the same time.
+         */
+        private int concurrency = 16;
+
+        /**
+         * Upper bound of occurrences posted for one planned payment in a single run,
+         * protecting against runaway catch-up on misconfigured recurrences.
+         */
+        private int maxOccurrencesPerRun = 1000;
+
+        /**
+         * Identifies this instance as a lease holder. Must be unique per running instance.
+         */
+        private String instanceId = UUID.randomUUID().toString();
+
+        /**
+         * Number of partitions due payments are split into. New payments are assigned
+         * a shard on creation. If it is lowered, payments on the dropped shards are picked up
+         * by the holder of shard 0 and moved to a live shard when they are next posted.
+         */
+        private int shardCount = 16;
+
+        /**
+         * How long a shard claim lasts without renewal. Must exceed the interval so
+         * a live instance keeps its shards between runs.
+         */
+        private Duration leaseTtl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,160 @@
+package com.lazyspender.backend.config;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import com.lazyspender.backend.util.RequestProfile;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call on the application's Datastore repositories and records how many entities each one returned.
+ * Publishes {@code lazyspender.repository.calls} (timer, tagged by repository, method and outcome) and
+ * {@code lazyspender.repository.entities} (summary, tagged by repository and method), and adds each call
+ * to the current {@link RequestProfile}.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final String REPOSITORY_PACKAGE = "com.lazyspender.backend.repository";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Optional<Class<?>> repositoryInterface = Arrays.stream(bean.getClass().getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(type -> type.getPackageName().equals(REPOSITORY_PACKAGE))
+                .findFirst();
+        if (repositoryInterface.isEmpty()) {
+            return bean;
+        }
+
+        MetricsInterceptor interceptor = new MetricsInterceptor(repositoryInterface.get().getSimpleName());
+        // Repositories are already proxies; advising them in place avoids a second proxy class,
+        // which the native image would otherwise need a hint for. First, so it wraps the query executor.
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private final class MetricsInterceptor implements MethodInterceptor {
+
+        private final String repository;
+        private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+        private MetricsInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            // The registry is resolved lazily; repositories are created before metrics are wired up
+            MethodMeters methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::register);
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                long duration = System.nanoTime() - start;
+                methodMeters.success().record(duration, TimeUnit.NANOSECONDS);
+                long entities = countEntities(invocation.getMethod(), result);
+                if (entities >= 0) {
+                    methodMeters.entities().record(entities);
+                }
+                recordInProfile(duration, entities);
+                return result;
+            } catch (Throwable e) {
+                long duration = System.nanoTime() - start;
+                methodMeters.error().record(duration, TimeUnit.NANOSECONDS);
+                recordInProfile(duration, 0);
+                throw e;
+            }
+        }
+
+        private void recordInProfile(long duration, long entities) {
+            RequestProfile profile = RequestProfile.current();
+            if (profile != null) {
+                profile.recordQuery(duration, entities);
+            }
+        }
+
+        private MethodMeters register(Method method) {
+            MeterRegistry registry = meterRegistry.getObject();
+            return new MethodMeters(
+                    timer(registry, method, "success"),
+                    timer(registry, method, "error"),
+                    DistributionSummary.builder("lazyspender.repository.entities")
+                            .description("Entities returned by a repository call")
+                            .tag("repository", repository)
+                            .tag("method", method.getName())
+                            .publishPercentileHistogram()
+                            .register(registry));
+        }
+
+        private Timer timer(MeterRegistry registry, Method method, String outcome) {
+            return Timer.builder("lazyspender.repository.calls")
+                    .description("Latency of repository calls")
+                    .tag("repository", repository)
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Number of entities in a repository result, or -1 for results that aren't entities (counts, sums, void)
+     */
+    private static long countEntities(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType.isPrimitive() || Number.class.isAssignableFrom(returnType) || returnType == Boolean.class) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        // Lazy iterables and streams would be consumed by counting them
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private record MethodMeters(Timer success, Timer error, DistributionSummary entities) {
+    }
+}
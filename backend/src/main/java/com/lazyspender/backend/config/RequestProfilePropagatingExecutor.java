@@ -0,0 +1,51 @@
+package com.lazyspender.backend.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.lazyspender.backend.util.RequestProfile;
+
+/**
+ * Runs tasks with the {@link RequestProfile} of the thread that submitted them,
+ * so Datastore work fanned out to other threads is still counted against its request.
+ */
+class RequestProfilePropagatingExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    RequestProfilePropagatingExecutor(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(RequestProfile.propagate(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
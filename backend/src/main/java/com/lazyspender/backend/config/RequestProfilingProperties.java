@@ -0,0 +1,40 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.request-profiling")
+public class RequestProfilingProperties {
+
+    /**
+     * Add a Server-Timing header to responses and log requests over budget.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Requests slower than this are logged.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Requests running more Datastore queries than this are logged.
+     */
+    private int maxQueries = 50;
+
+    /**
+     * Requests reading more Datastore entities than this are logged.
+     */
+    private long maxEntities = 5_000;
+
+    /**
+     * Path patterns that are never profiled. The header needs the whole body buffered,
+     * which would defeat streaming endpoints.
+     */
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/transactions/owner/*/export"));
+}
@@ -0,0 +1,110 @@
+package com.lazyspender.backend.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.lazyspender.backend.util.RequestProfile;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adds a Server-Timing header that splits each request into Datastore, aggregation, mapping and
+ * serialization time, and logs requests that go over the configured time or read budgets.
+ * The body is buffered so the header can still be set once serialization has finished.
+ */
+@Slf4j
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final RequestProfilingProperties properties;
+    private final List<PathPattern> excludedPaths;
+
+    public ServerTimingFilter(RequestProfilingProperties properties) {
+        this.properties = properties;
+        this.excludedPaths = properties.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        return excludedPaths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, bufferedResponse);
+        } finally {
+            RequestProfile.clear();
+            long endNanos = System.nanoTime();
+            Timings timings = Timings.of(profile, endNanos);
+            bufferedResponse.setHeader("Server-Timing", timings.header(profile));
+            logIfOverBudget(request, bufferedResponse.getStatus(), profile, timings);
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void logIfOverBudget(HttpServletRequest request, int status, RequestProfile profile, Timings timings) {
+        boolean slow = timings.total() > properties.getSlowThreshold().toNanos();
+        boolean tooManyQueries = profile.queries() > properties.getMaxQueries();
+        boolean tooManyEntities = profile.entities() > properties.getMaxEntities();
+        if (!slow && !tooManyQueries && !tooManyEntities) {
+            return;
+        }
+
+        log.warn("Request over budget method={} uri={} status={} totalMs={} datastoreMs={} aggregationMs={} mappingMs={} "
+                        + "serializationMs={} queries={} entities={} slow={} tooManyQueries={} tooManyEntities={}",
+                request.getMethod(), request.getRequestURI(), status,
+                TimeUnit.NANOSECONDS.toMillis(timings.total()), TimeUnit.NANOSECONDS.toMillis(timings.datastore()),
+                TimeUnit.NANOSECONDS.toMillis(timings.aggregation()), TimeUnit.NANOSECONDS.toMillis(timings.mapping()),
+                TimeUnit.NANOSECONDS.toMillis(timings.serialization()), profile.queries(), profile.entities(),
+                slow, tooManyQueries, tooManyEntities);
+    }
+
+    /**
+     * Phase durations in nanoseconds. Aggregation is whatever handler time isn't Datastore or mapping;
+     * Datastore time is summed over concurrent queries, so aggregation is clamped at zero.
+     */
+    private record Timings(long total, long datastore, long aggregation, long mapping, long serialization) {
+
+        static Timings of(RequestProfile profile, long endNanos) {
+            long serializationStart = profile.serializationStartNanos() == 0 ? endNanos : profile.serializationStartNanos();
+            long handler = serializationStart - profile.startNanos();
+            long aggregation = Math.max(0, handler - profile.datastoreNanos() - profile.mappingNanos());
+            return new Timings(endNanos - profile.startNanos(), profile.datastoreNanos(), aggregation,
+                    profile.mappingNanos(), endNanos - serializationStart);
+        }
+
+        String header(RequestProfile profile) {
+            return String.format(Locale.ROOT,
+                    "db;dur=%.1f;desc=\"%d queries, %d entities\", agg;dur=%.1f, map;dur=%.1f, ser;dur=%.1f, total;dur=%.1f",
+                    millis(datastore), profile.queries(), profile.entities(), millis(aggregation), millis(mapping),
+                    millis(serialization), millis(total));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.lazyspender.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.transaction-import")
+public class TransactionImportProperties {
+
+    /**
+     * Number of rows written per Datastore batch put (Datastore allows at most 500 per commit).
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Maximum number of batch puts running at the same time.
+     */
+    private int maxInFlight = 4;
+
+    /**
+     * Maximum number of row errors returned; further errors are only counted.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,62 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.transaction-ingest")
+public class TransactionIngestProperties {
+
+    /**
+     * Accept {@code Prefer: respond-async} creations into the write-behind queue.
+     * When disabled, such requests are written synchronously like any other.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of accepted transactions waiting to be written.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of transactions written per Datastore batch put (Datastore allows at most 500 per commit).
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time an accepted transaction waits for its batch to fill up before it is written anyway.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * How long a request waits for room in a full queue before it is turned away with 503.
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Attempts per batch put before its transactions are dropped and logged.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Backoff before the first retry; doubled per attempt up to the maximum, with full jitter.
+     */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * How long a read of an owner with queued transactions waits for them to be written.
+     */
+    private Duration readYourWritesTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long shutdown waits for the queue to be written out before the rest is logged and lost.
+     * Together with {@code spring.lifecycle.timeout-per-shutdown-phase} for the web server, this has
+     * to fit in the platform's termination grace period (10 seconds on Cloud Run).
+     */
+    private Duration drainTimeout = Duration.ofSeconds(4);
+}
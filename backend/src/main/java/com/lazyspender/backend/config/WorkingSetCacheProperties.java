@@ -0,0 +1,22 @@
+package com.lazyspender.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "lazyspender.working-set-cache")
+public class WorkingSetCacheProperties {
+
+    /**
+     * Maximum number of owners whose user and planned payments are kept in memory.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Owners not looked up for this long are evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
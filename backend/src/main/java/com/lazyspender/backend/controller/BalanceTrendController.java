@@ -1,16 +1,34 @@
 package com.lazyspender.backend.controller;
 
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.lazyspender.backend.config.BinaryJsonEncoder;
 import com.lazyspender.backend.dto.BalanceTrendResponse;
+import com.lazyspender.backend.dto.CacheStatsResponse;
+import com.lazyspender.backend.dto.CheckpointRebuildResponse;
+import com.lazyspender.backend.dto.ColumnarBalanceTrendResponse;
+import com.lazyspender.backend.dto.MultiPeriodBalanceTrendResponse;
+import com.lazyspender.backend.dto.RollupRebuildResponse;
 import com.lazyspender.backend.model.TrendPeriod;
+import com.lazyspender.backend.service.BalanceCheckpointService;
+import com.lazyspender.backend.service.BalanceRollupService;
 import com.lazyspender.backend.service.BalanceTrendService;
+import com.lazyspender.backend.service.OwnerDataVersionService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,15 +37,143 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BalanceTrendController {
 
+    private static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(ColumnarBalanceTrendResponse.MEDIA_TYPE);
+    private static final List<MediaType> COLUMNAR_MEDIA_TYPES = List.of(
+            COLUMNAR_JSON,
+            MediaType.APPLICATION_CBOR,
+            BinaryJsonEncoder.APPLICATION_SMILE);
+
     private final BalanceTrendService balanceTrendService;
+    private final BalanceRollupService balanceRollupService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final OwnerDataVersionService ownerDataVersionService;
+    private final BinaryJsonEncoder binaryJsonEncoder;
 
+    /**
+     * Rows of data points by default. Parallel arrays with {@code format=columnar}, or when the client
+     * accepts the columnar JSON type or a binary encoding (CBOR, Smile), which is only offered for columns.
+     */
     @GetMapping
-    public ResponseEntity<BalanceTrendResponse> getBalanceTrend(
+    public ResponseEntity<?> getBalanceTrend(
             @RequestParam String owner,
             @RequestParam List<String> accounts,
-            @RequestParam TrendPeriod period) {
+            @RequestParam TrendPeriod period,
+            @RequestParam(name = "currency", required = false) String currency,
+            @RequestParam(name = "format", required = false) String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        String targetCurrency = normalizeCurrency(currency);
+        if (targetCurrency != null && !balanceTrendService.supportsCurrency(targetCurrency)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!balanceTrendService.unconvertibleCurrencies(owner, targetCurrency).isEmpty()) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        MediaType columnarType = acceptedColumnarType(accept);
+        boolean columnar = columnarType != null || "columnar".equalsIgnoreCase(format);
+
+        // The trend range ends today, so the tag changes at midnight UTC as well as on writes, and on new rates
+        // when it converts. Representations negotiated by Accept share the URL, so they need tags of their own.
+        String variant = !columnar ? "rows" : (columnarType != null ? columnarType.getSubtype() : "columnar");
+        String etag = ownerDataVersionService.dailyEtag(owner, variant + rateTag(owner, targetCurrency));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        BalanceTrendResponse response = balanceTrendService.getBalanceTrend(owner, accounts, period, targetCurrency);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (!columnar) {
+            return ok.body(response);
+        }
+        ColumnarBalanceTrendResponse columns = ColumnarBalanceTrendResponse.of(response);
+        if (columnarType != null && binaryJsonEncoder.supports(columnarType)) {
+            // Encoded here because the binary converters are not registered globally
+            return ok.contentType(columnarType).body(binaryJsonEncoder.encode(columns, columnarType));
+        }
+        return columnarType != null ? ok.contentType(columnarType).body(columns) : ok.body(columns);
+    }
+
+    private String rateTag(String owner, String currency) {
+        long rateGeneration = balanceTrendService.rateGeneration(owner, currency);
+        return (rateGeneration == 0) ? "" : "-fx" + rateGeneration;
+    }
+
+    private String normalizeCurrency(String currency) {
+        return (currency == null || currency.isBlank()) ? null : currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Pick the representation the client prefers, by quality and then by header order. Types with
+     * {@code q=0} are refused, and a plain JSON type or wildcard ranked first selects rows.
+     *
+     * @return The preferred columnar type, or null when rows are preferred or nothing columnar is accepted
+     */
+    private MediaType acceptedColumnarType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept).stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType mediaType : accepted) {
+            for (MediaType columnarType : COLUMNAR_MEDIA_TYPES) {
+                if (mediaType.equalsTypeAndSubtype(columnarType)) {
+                    return columnarType;
+                }
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @GetMapping("/multi")
+    public ResponseEntity<MultiPeriodBalanceTrendResponse> getMultiPeriodBalanceTrend(
+            @RequestParam String owner,
+            @RequestParam(required = false) List<String> accounts,
+            @RequestParam List<TrendPeriod> periods,
+            @RequestParam(defaultValue = "false") boolean breakdown,
+            @RequestParam(name = "currency", required = false) String currency,
+            WebRequest webRequest) {
+        String targetCurrency = normalizeCurrency(currency);
+        if (periods.isEmpty() || (targetCurrency != null && !balanceTrendService.supportsCurrency(targetCurrency))) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!balanceTrendService.unconvertibleCurrencies(owner, targetCurrency).isEmpty()) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        long rateGeneration = balanceTrendService.rateGeneration(owner, targetCurrency);
+        String etag = (rateGeneration == 0)
+                ? ownerDataVersionService.dailyEtag(owner)
+                : ownerDataVersionService.dailyEtag(owner, "fx" + rateGeneration);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        MultiPeriodBalanceTrendResponse response = balanceTrendService
+                .getMultiPeriodBalanceTrend(owner, accounts, EnumSet.copyOf(periods), breakdown, targetCurrency);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        CacheStatsResponse response = balanceTrendService.getCacheStats();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<RollupRebuildResponse> rebuildRollups(@RequestParam(name = "owner") String owner) {
+        RollupRebuildResponse response = balanceRollupService.rebuild(owner);
+        return ResponseEntity.ok(response);
+    }
 
-        BalanceTrendResponse response = balanceTrendService.getBalanceTrend(owner, accounts, period);
+    @PostMapping("/checkpoints/rebuild")
+    public ResponseEntity<CheckpointRebuildResponse> rebuildCheckpoints(@RequestParam(name = "owner") String owner) {
+        CheckpointRebuildResponse response = balanceCheckpointService.rebuild(owner);
         return ResponseEntity.ok(response);
     }
 }
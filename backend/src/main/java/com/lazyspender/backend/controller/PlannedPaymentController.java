@@ -1,14 +1,22 @@
 package com.lazyspender.backend.controller;
 
+import com.lazyspender.backend.dto.AutoConfirmRunResponse;
+import com.lazyspender.backend.dto.ForecastResponse;
+import com.lazyspender.backend.dto.OccurrenceCounterRepairResponse;
 import com.lazyspender.backend.dto.PlannedPaymentRequest;
 import com.lazyspender.backend.dto.PlannedPaymentResponse;
 import com.lazyspender.backend.model.PaymentStatus;
+import com.lazyspender.backend.service.OwnerDataVersionService;
+import com.lazyspender.backend.service.PlannedPaymentAutoConfirmEngine;
+import com.lazyspender.backend.service.PlannedPaymentForecastService;
 import com.lazyspender.backend.service.PlannedPaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,7 +25,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PlannedPaymentController {
 
+    private static final int MAX_FORECAST_HORIZON_MONTHS = 60;
+
     private final PlannedPaymentService plannedPaymentService;
+    private final PlannedPaymentAutoConfirmEngine autoConfirmEngine;
+    private final PlannedPaymentForecastService forecastService;
+    private final OwnerDataVersionService ownerDataVersionService;
 
     @PostMapping
     public ResponseEntity<PlannedPaymentResponse> createPlannedPayment(@Valid @RequestBody PlannedPaymentRequest request) {
@@ -25,6 +38,29 @@ public class PlannedPaymentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/forecast")
+    public ResponseEntity<ForecastResponse> getForecast(
+            @RequestParam(name = "owner") String owner,
+            @RequestParam(name = "horizon", defaultValue = "12") int horizon,
+            WebRequest webRequest) {
+        if (horizon < 1 || horizon > MAX_FORECAST_HORIZON_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!forecastService.unconvertibleCurrencies(owner).isEmpty()) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        // The forecast starts today, so the tag changes at midnight UTC as well as on writes, and on new rates when it converts
+        long rateGeneration = forecastService.rateGeneration(owner);
+        String etag = (rateGeneration == 0)
+                ? ownerDataVersionService.dailyEtag(owner)
+                : ownerDataVersionService.dailyEtag(owner, "fx" + rateGeneration);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ForecastResponse response = forecastService.forecast(owner, horizon);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PlannedPaymentResponse> getPlannedPaymentById(@PathVariable(name = "id") String id) {
         PlannedPaymentResponse response = plannedPaymentService.getPlannedPaymentById(id);
@@ -34,14 +70,18 @@ public class PlannedPaymentController {
     @GetMapping
     public ResponseEntity<List<PlannedPaymentResponse>> getPlannedPayments(
             @RequestParam(name = "owner") String owner,
-            @RequestParam(name = "status", required = false) PaymentStatus status) {
+            @RequestParam(name = "status", required = false) PaymentStatus status,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(ownerDataVersionService.etag(owner))) {
+            return null;
+        }
         List<PlannedPaymentResponse> response;
         if (status != null) {
             response = plannedPaymentService.getPlannedPaymentsByStatus(owner, status);
         } else {
             response = plannedPaymentService.getAllPlannedPayments(owner);
         }
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
     }
 
     @PutMapping("/{id}")
@@ -57,4 +97,24 @@ public class PlannedPaymentController {
         plannedPaymentService.deletePlannedPayment(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/auto-confirm")
+    public ResponseEntity<AutoConfirmRunResponse> runAutoConfirm() {
+        return autoConfirmEngine.run()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @PostMapping("/occurrence-counters/repair")
+    public ResponseEntity<OccurrenceCounterRepairResponse> repairOccurrenceCounters(
+            @RequestParam(name = "owner", required = false) String owner) {
+        return ResponseEntity.ok(plannedPaymentService.repairOccurrenceCounters(owner));
+    }
+
+    @GetMapping("/auto-confirm/last-run")
+    public ResponseEntity<AutoConfirmRunResponse> getLastAutoConfirmRun() {
+        return autoConfirmEngine.getLastRun()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
 }
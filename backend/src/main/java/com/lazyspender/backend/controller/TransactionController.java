@@ -1,8 +1,21 @@
 package com.lazyspender.backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,31 +23,84 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.lazyspender.backend.dto.PageResponse;
+import com.lazyspender.backend.dto.TransactionBatchRequest;
+import com.lazyspender.backend.dto.TransactionBatchResponse;
+import com.lazyspender.backend.dto.TransactionImportResponse;
 import com.lazyspender.backend.dto.TransactionRequest;
 import com.lazyspender.backend.dto.TransactionResponse;
+import com.lazyspender.backend.model.ExportFormat;
+import com.lazyspender.backend.service.NoteSuggestionIndex;
+import com.lazyspender.backend.service.OwnerDataVersionService;
+import com.lazyspender.backend.service.TransactionBatchService;
+import com.lazyspender.backend.service.TransactionExportService;
+import com.lazyspender.backend.service.TransactionImportService;
+import com.lazyspender.backend.service.TransactionIngestQueue;
 import com.lazyspender.backend.service.TransactionService;
+import com.lazyspender.backend.util.DateTimeUtils;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final int MAX_NOTE_SUGGESTIONS = 50;
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionBatchService transactionBatchService;
+    private final NoteSuggestionIndex noteSuggestionIndex;
+    private final OwnerDataVersionService ownerDataVersionService;
+    private final TransactionIngestQueue transactionIngestQueue;
 
     @PostMapping
-    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> createTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && transactionIngestQueue.isAccepting()) {
+            Optional<TransactionResponse> accepted = transactionService.enqueueTransaction(request);
+            if (accepted.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/transactions/" + accepted.get().getId()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(accepted.get());
+        }
         TransactionResponse response = transactionService.createTransaction(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponse> executeBatch(@Valid @RequestBody TransactionBatchRequest request) {
+        TransactionBatchResponse response = transactionBatchService.execute(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TransactionImportResponse> importTransactions(
+            @RequestParam(name = "owner") String owner,
+            InputStream body) throws IOException {
+        TransactionImportResponse response = transactionImportService.importCsv(owner, body);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable(name = "id") String id) {
         TransactionResponse response = transactionService.getTransactionById(id);
@@ -44,8 +110,9 @@ public class TransactionController {
     @GetMapping
     public ResponseEntity<PageResponse<TransactionResponse>> getAllTransactions(
             @RequestParam(name = "page", defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "20") int size) {
-        PageResponse<TransactionResponse> response = transactionService.getAllTransactions(page, size);
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        PageResponse<TransactionResponse> response = transactionService.getAllTransactions(page, size, cursor);
         return ResponseEntity.ok(response);
     }
 
@@ -53,9 +120,56 @@ public class TransactionController {
     public ResponseEntity<PageResponse<TransactionResponse>> getTransactionsByOwner(
             @PathVariable(name = "owner") String owner,
             @RequestParam(name = "page", defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "20") int size) {
-        PageResponse<TransactionResponse> response = transactionService.getTransactionsByOwner(owner, page, size);
-        return ResponseEntity.ok(response);
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(ownerDataVersionService.etag(owner))) {
+            return null;
+        }
+        PageResponse<TransactionResponse> response = transactionService.getTransactionsByOwner(owner, page, size, cursor);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
+    }
+
+    @GetMapping("/owner/{owner}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable(name = "owner") String owner,
+            @RequestParam(name = "format", defaultValue = "csv") String format,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<ExportFormat> parsedFormat = Arrays.stream(ExportFormat.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(format))
+                .findFirst();
+        if (parsedFormat.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportFormat exportFormat = parsedFormat.get();
+        Instant startDate = (from != null) ? from : Instant.EPOCH;
+        Instant endDate = (to != null) ? to : DateTimeUtils.maxDatastoreInstant();
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = output -> {
+            try (OutputStream target = gzip ? new GZIPOutputStream(output, 8192) : output) {
+                transactionExportService.export(owner, startDate, endDate, exportFormat, target);
+            } catch (IOException e) {
+                // Client went away mid-stream; stop reading from Datastore and let the request end quietly
+                log.debug("Export for owner {} aborted: {}", owner, e.getMessage());
+            }
+        };
+
+        MediaType contentType = (exportFormat == ExportFormat.CSV)
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+        String filename = "transactions-" + owner + "." + exportFormat.name().toLowerCase(Locale.ROOT);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PutMapping("/{id}")
@@ -72,9 +186,61 @@ public class TransactionController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/notes/suggest")
+    public ResponseEntity<List<String>> suggestNotes(
+            @RequestParam(name = "owner") String owner,
+            @RequestParam(name = "prefix", defaultValue = "") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_NOTE_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> suggestions = noteSuggestionIndex.suggest(owner, prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @GetMapping("/distinct-notes")
-    public ResponseEntity<List<String>> getDistinctNotes(@RequestParam(name = "owner") String owner) {
+    public ResponseEntity<List<String>> getDistinctNotes(@RequestParam(name = "owner") String owner, WebRequest webRequest) {
+        if (webRequest.checkNotModified(ownerDataVersionService.etag(owner))) {
+            return null;
+        }
         List<String> distinctNotes = transactionService.getDistinctNotesByOwner(owner);
-        return ResponseEntity.ok(distinctNotes);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(distinctNotes);
+    }
+
+    /**
+     * Check whether a client accepts gzip, honoring quality values: {@code gzip;q=0} refuses it,
+     * and a wildcard only counts when gzip is not listed itself
+     *
+     * @param acceptEncoding Accept-Encoding header, may be null
+     * @return True if gzip or {@code *} is listed with a non-zero quality
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = (gzipQuality != null) ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
     }
 }
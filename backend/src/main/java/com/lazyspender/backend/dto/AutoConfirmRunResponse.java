@@ -0,0 +1,25 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoConfirmRunResponse {
+    private Instant startedAt;
+    private String instanceId;
+    private List<Integer> shards;
+    private long durationMillis;
+    private int duePayments;
+    private int processedPayments;
+    private int failedPayments;
+    private int transactionsPosted;
+    private double transactionsPerSecond;
+}
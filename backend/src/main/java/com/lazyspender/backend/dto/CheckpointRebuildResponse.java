@@ -0,0 +1,15 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckpointRebuildResponse {
+    private String owner;
+    private int checkpointsDeleted;
+}
@@ -0,0 +1,56 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Balance trend as parallel arrays instead of one object per data point.
+ * Entry i of every array belongs to the same point; labels are left to the client,
+ * which formats them from the timestamp.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarBalanceTrendResponse {
+
+    public static final String MEDIA_TYPE = "application/vnd.lazyspender.columnar+json";
+
+    private double totalBalance;
+    private String currency;
+    private long[] timestamps;  // Epoch millis of each period start
+    private double[] balances;
+    private double[] incomes;
+    private double[] expenses;
+    private YAxisConfig yAxisConfig;
+
+    public static ColumnarBalanceTrendResponse of(BalanceTrendResponse response) {
+        List<BalanceTrendDataPoint> dataPoints = response.getDataPoints();
+        int size = dataPoints.size();
+        long[] timestamps = new long[size];
+        double[] balances = new double[size];
+        double[] incomes = new double[size];
+        double[] expenses = new double[size];
+        for (int i = 0; i < size; i++) {
+            BalanceTrendDataPoint dataPoint = dataPoints.get(i);
+            timestamps[i] = dataPoint.getTimestamp().toEpochMilli();
+            balances[i] = dataPoint.getBalance();
+            incomes[i] = dataPoint.getIncome();
+            expenses[i] = dataPoint.getExpense();
+        }
+
+        return ColumnarBalanceTrendResponse.builder()
+                .totalBalance(response.getTotalBalance())
+                .currency(response.getCurrency())
+                .timestamps(timestamps)
+                .balances(balances)
+                .incomes(incomes)
+                .expenses(expenses)
+                .yAxisConfig(response.getYAxisConfig())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastDataPoint {
+    private Instant date;  // Start of the UTC day
+    private int payments;
+    private double outflow;
+    private double balance;  // Projected balance at the end of the day
+}
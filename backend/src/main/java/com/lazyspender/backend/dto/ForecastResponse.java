@@ -0,0 +1,24 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastResponse {
+    private Instant from;
+    private Instant to;
+    private String currency;
+    private double currentBalance;
+    private double projectedBalance;
+    private double lowestBalance;
+    private Instant lowestBalanceDate;
+    private List<ForecastDataPoint> dataPoints;
+}
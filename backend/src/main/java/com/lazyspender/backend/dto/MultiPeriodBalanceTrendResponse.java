@@ -0,0 +1,18 @@
+package com.lazyspender.backend.dto;
+
+import com.lazyspender.backend.model.TrendPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiPeriodBalanceTrendResponse {
+    private Map<TrendPeriod, BalanceTrendResponse> trends;
+    private Map<String, Map<TrendPeriod, BalanceTrendResponse>> accountTrends;  // Only with breakdown=true
+}
@@ -0,0 +1,16 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccurrenceCounterRepairResponse {
+    private int paymentsScanned;
+    private int paymentsUpdated;
+    private int paymentsSkipped;
+}
@@ -16,8 +16,7 @@ public class PageResponse<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor;  // Opaque Datastore cursor for the next page, null on the last page
 }
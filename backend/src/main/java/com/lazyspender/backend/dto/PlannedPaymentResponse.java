@@ -36,4 +36,6 @@ public class PlannedPaymentResponse {
 
     private PaymentStatus status;
     private Instant nextDueDate;
+    private Integer occurrenceCount;
+    private Instant lastConfirmedDate;
 }
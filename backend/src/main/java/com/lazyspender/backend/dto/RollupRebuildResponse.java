@@ -0,0 +1,18 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildResponse {
+    private String owner;
+    private int transactionsScanned;
+    private int rollupsWritten;
+    private int rollupsDeleted;
+    private boolean rebuildRequired;  // Writes raced with the rebuild, so the rollups stay unused until it is run again
+}
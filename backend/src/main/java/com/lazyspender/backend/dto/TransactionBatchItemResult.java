@@ -0,0 +1,20 @@
+package com.lazyspender.backend.dto;
+
+import com.lazyspender.backend.model.BatchOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemResult {
+    private int index;  // Position of the operation in the request
+    private BatchOperationType type;
+    private String id;
+    private int status;  // HTTP status the equivalent single request would have returned
+    private TransactionResponse transaction;
+    private String error;
+}
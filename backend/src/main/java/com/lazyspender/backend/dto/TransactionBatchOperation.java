@@ -0,0 +1,22 @@
+package com.lazyspender.backend.dto;
+
+import com.lazyspender.backend.model.BatchOperationType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchOperation {
+
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType type;
+
+    private String id;  // Required for UPDATE and DELETE
+
+    private TransactionRequest transaction;  // Required for CREATE and UPDATE, validated per item
+}
@@ -0,0 +1,21 @@
+package com.lazyspender.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchRequest {
+
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 5000, message = "At most 5000 operations per batch")
+    private List<TransactionBatchOperation> operations;  // Not cascaded: invalid items fail on their own in the response
+}
@@ -0,0 +1,15 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionImportError {
+    private long row;  // 1-based line number in the uploaded file, the header being row 1
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.lazyspender.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionImportResponse {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<TransactionImportError> errors;
+    private boolean errorsTruncated;
+    private long durationMillis;
+}
@@ -0,0 +1,10 @@
+package com.lazyspender.backend.event;
+
+/**
+ * Published after an owner's planned payments or user profile have been written to Datastore.
+ * Transaction writes publish {@link TransactionsChangedEvent} instead.
+ *
+ * @param owner Owner whose data changed
+ */
+public record OwnerDataChangedEvent(String owner) {
+}
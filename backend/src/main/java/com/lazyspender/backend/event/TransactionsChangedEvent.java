@@ -0,0 +1,40 @@
+package com.lazyspender.backend.event;
+
+import com.lazyspender.backend.model.Transaction;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Published after transactions have been written to Datastore.
+ * An update is modelled as the previous state being removed and the new state being added,
+ * so listeners maintaining derived data only need to handle additions and removals.
+ *
+ * @param removed Transactions (or previous states) that no longer exist
+ * @param added   Transactions (or new states) that now exist
+ */
+public record TransactionsChangedEvent(List<Transaction> removed, List<Transaction> added) {
+
+    public static TransactionsChangedEvent created(Transaction transaction) {
+        return new TransactionsChangedEvent(List.of(), List.of(transaction));
+    }
+
+    public static TransactionsChangedEvent updated(Transaction previous, Transaction current) {
+        return new TransactionsChangedEvent(List.of(previous), List.of(current));
+    }
+
+    public static TransactionsChangedEvent deleted(Transaction transaction) {
+        return new TransactionsChangedEvent(List.of(transaction), List.of());
+    }
+
+    /**
+     * @return Distinct owners touched by this change
+     */
+    public Set<String> owners() {
+        return Stream.concat(removed.stream(), added.stream())
+                .map(Transaction::getOwner)
+                .collect(Collectors.toSet());
+    }
+}
@@ -13,6 +13,9 @@ public interface PlannedPaymentMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "nextDueDate", ignore = true)
+    @Mapping(target = "shard", ignore = true)
+    @Mapping(target = "occurrenceCount", ignore = true)
+    @Mapping(target = "lastConfirmedDate", ignore = true)
     PlannedPayment toEntity(PlannedPaymentRequest request);
 
     PlannedPaymentResponse toResponse(PlannedPayment plannedPayment);
@@ -20,5 +23,8 @@ public interface PlannedPaymentMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "nextDueDate", ignore = true)
+    @Mapping(target = "shard", ignore = true)
+    @Mapping(target = "occurrenceCount", ignore = true)
+    @Mapping(target = "lastConfirmedDate", ignore = true)
     void updateEntityFromRequest(PlannedPaymentRequest request, @MappingTarget PlannedPayment plannedPayment);
 }
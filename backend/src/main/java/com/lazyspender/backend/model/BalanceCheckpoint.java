@@ -0,0 +1,37 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+/**
+ * Running balance of one (owner, account) just before a month boundary.
+ * Opening balances start from the nearest checkpoint and only add the transactions after it.
+ */
+@Entity(name = "balanceCheckpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpoint {
+
+    @Id
+    private String id;  // owner:account:checkpointDateEpochMillis
+
+    private String owner;
+
+    private String account;
+
+    private Instant checkpointDate;  // Start of a UTC month
+
+    private double balance;  // Sum of all transactions strictly before checkpointDate
+
+    public static String idOf(String owner, String account, Instant checkpointDate) {
+        return String.join(":", owner, account, Long.toString(checkpointDate.toEpochMilli()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+/**
+ * Guards an owner's balance checkpoints against races between scans and back-dated writes.
+ * Every invalidation changes the epoch, and a scan only saves its checkpoints in a transaction
+ * that finds the epoch it started with.
+ */
+@Entity(name = "balanceCheckpointStates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpointState {
+
+    @Id
+    private String owner;
+
+    private long epoch;
+
+    private Instant staleFrom;  // Checkpoints after this date may be stale and are not used, null when all are valid
+
+    private int pendingInvalidations;  // Invalidations started but not finished; staleFrom is cleared when none are left
+}
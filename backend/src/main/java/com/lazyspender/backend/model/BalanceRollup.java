@@ -0,0 +1,44 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+/**
+ * Pre-aggregated income and expense totals for one (owner, account) bucket.
+ * Kept up to date incrementally on every transaction write so balance trends
+ * can be built from a handful of bucket reads instead of the raw transactions.
+ */
+@Entity(name = "balanceRollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceRollup {
+
+    @Id
+    private String id;  // owner:account:granularity:bucketStartEpochMillis
+
+    private String owner;
+
+    private String account;
+
+    private RollupGranularity granularity;
+
+    private Instant bucketStart;
+
+    private double income;
+
+    private double expense;
+
+    private String currency;
+
+    public static String idOf(String owner, String account, RollupGranularity granularity, Instant bucketStart) {
+        return String.join(":", owner, account, granularity.name(), Long.toString(bucketStart.toEpochMilli()));
+    }
+}
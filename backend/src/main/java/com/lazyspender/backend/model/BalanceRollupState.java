@@ -0,0 +1,31 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Whether an owner's balance rollups can be trusted. Set when an incremental update fails or a
+ * rebuild is running, and cleared only by a rebuild that no write raced with.
+ * Trends of an owner marked here, or without a state at all because it was never rebuilt,
+ * are built from the raw transactions.
+ */
+@Entity(name = "balanceRollupStates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceRollupState {
+
+    @Id
+    private String owner;
+
+    private boolean rebuildRequired;
+
+    private String rebuildToken;  // Identifies the running rebuild, null when none is running
+
+    private boolean changedDuringRebuild;  // An incremental update touched the rollups while the rebuild ran
+}
@@ -0,0 +1,7 @@
+package com.lazyspender.backend.model;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,6 @@
+package com.lazyspender.backend.model;
+
+public enum ExportFormat {
+    CSV,     // text/csv with a header row, same columns the import accepts
+    NDJSON   // One TransactionResponse JSON object per line
+}
@@ -0,0 +1,36 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Daily exchange rate of one currency against the configured reference currency.
+ * Days without a rate use the latest earlier one.
+ */
+@Entity(name = "fxRates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    private String id;  // currency:yyyy-MM-dd
+
+    private String currency;
+
+    private Instant date;  // Start of the UTC day the rate applies from
+
+    private double rate;  // Units of the reference currency one unit of currency is worth
+
+    public static String idOf(String currency, LocalDate day) {
+        return currency + ":" + day;
+    }
+}
@@ -0,0 +1,25 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Version of everything an owner can read, bumped after every write to their transactions,
+ * planned payments or user profile. Used as the ETag of the owner's read endpoints.
+ */
+@Entity(name = "ownerDataVersions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerDataVersion {
+
+    @Id
+    private String owner;
+
+    private long version;
+}
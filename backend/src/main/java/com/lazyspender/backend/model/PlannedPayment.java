@@ -51,4 +51,11 @@ public class PlannedPayment {
     private PaymentStatus status;
 
     private Instant nextDueDate;
+
+    private Integer occurrenceCount;  // Occurrences posted so far, null for payments created before it was tracked
+
+    private Instant lastConfirmedDate;  // Due date of the latest posted occurrence
+
+    // === Processing ===
+    private Integer shard;  // Auto-confirm partition, null for payments created before sharding
 }
@@ -0,0 +1,35 @@
+package com.lazyspender.backend.model;
+
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+/**
+ * Short-lived claim of a unit of background work by one application instance.
+ * A lease whose expiry has passed is free for any instance to take over.
+ */
+@Entity(name = "processingLeases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingLease {
+
+    @Id
+    private String id;  // leaseGroup:name
+
+    private String leaseGroup;
+
+    private String holder;  // Instance id
+
+    private Instant expiresAt;
+
+    public static String idOf(String leaseGroup, String name) {
+        return leaseGroup + ":" + name;
+    }
+}
@@ -0,0 +1,6 @@
+package com.lazyspender.backend.model;
+
+public enum RollupGranularity {
+    WEEK,   // ISO week starting on Monday (UTC)
+    MONTH   // UTC calendar month
+}
@@ -11,7 +11,7 @@ import java.time.Instant;
 
 @Entity(name = "transactions")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
@@ -38,4 +38,12 @@ public class Transaction {
     private String plannedPaymentId;
 
     private TransactionType type;
+
+    /**
+     * Deterministic id of the transaction posted for one occurrence of a planned payment,
+     * so posting the same occurrence twice overwrites instead of duplicating.
+     */
+    public static String plannedOccurrenceIdOf(String plannedPaymentId, Instant dueDate) {
+        return plannedPaymentId + ":" + dueDate.toEpochMilli();
+    }
 }
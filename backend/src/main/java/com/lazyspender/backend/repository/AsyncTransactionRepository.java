@@ -0,0 +1,65 @@
+package com.lazyspender.backend.repository;
+
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking facade over {@link TransactionRepository}. Each call runs on its own virtual thread,
+ * so independent Datastore round trips of one request overlap instead of adding up.
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncTransactionRepository {
+
+    private final TransactionRepository transactionRepository;
+    private final ExecutorService virtualThreadExecutor;
+
+    public CompletableFuture<List<Transaction>> findByOwnerAndDateBetweenOrderByDateAsc(String owner, Instant startDate, Instant endDate) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.findByOwnerAndDateBetweenOrderByDateAsc(owner, startDate, endDate),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<List<Transaction>> findByOwnerAndAccountAndDateBetweenOrderByDateAsc(String owner, String account, Instant startDate, Instant endDate) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.findByOwnerAndAccountAndDateBetweenOrderByDateAsc(owner, account, startDate, endDate),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<Double> sumAmountByOwnerAndTypeAndDateBefore(String owner, TransactionType type, Instant beforeDate) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.sumAmountByOwnerAndTypeAndDateBefore(owner, type, beforeDate),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<Double> sumAmountByOwnerAndTypeAndCurrencyAndDateBefore(String owner, TransactionType type, String currency, Instant beforeDate) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.sumAmountByOwnerAndTypeAndCurrencyAndDateBefore(owner, type, currency, beforeDate),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<Double> sumAmountByOwnerAndAccountAndTypeAndCurrencyAndDateBefore(String owner, String account, TransactionType type, String currency, Instant beforeDate) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.sumAmountByOwnerAndAccountAndTypeAndCurrencyAndDateBefore(owner, account, type, currency, beforeDate),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<List<String>> findDistinctCurrenciesByOwner(String owner) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.findDistinctCurrenciesByOwner(owner),
+                virtualThreadExecutor);
+    }
+
+    public CompletableFuture<List<String>> findDistinctAccountsByOwner(String owner) {
+        return CompletableFuture.supplyAsync(
+                () -> transactionRepository.findDistinctAccountsByOwner(owner),
+                virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,21 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.google.cloud.spring.data.datastore.repository.query.Query;
+import com.lazyspender.backend.model.BalanceCheckpoint;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BalanceCheckpointRepository extends DatastoreRepository<BalanceCheckpoint, String> {
+
+    List<BalanceCheckpoint> findByOwner(String owner);
+
+    @Query("SELECT * FROM balanceCheckpoints WHERE owner = @owner AND account = @account AND checkpointDate <= @date ORDER BY checkpointDate DESC LIMIT 1")
+    List<BalanceCheckpoint> findLatestByOwnerAndAccountAtOrBefore(@Param("owner") String owner, @Param("account") String account, @Param("date") Instant date);
+
+    List<BalanceCheckpoint> findByOwnerAndAccountAndCheckpointDateGreaterThan(String owner, String account, Instant checkpointDate);
+}
@@ -0,0 +1,9 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.lazyspender.backend.model.BalanceCheckpointState;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceCheckpointStateRepository extends DatastoreRepository<BalanceCheckpointState, String> {
+}
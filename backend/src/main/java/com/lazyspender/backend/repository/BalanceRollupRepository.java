@@ -0,0 +1,24 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.google.cloud.spring.data.datastore.repository.query.Query;
+import com.lazyspender.backend.model.BalanceRollup;
+import com.lazyspender.backend.model.RollupGranularity;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BalanceRollupRepository extends DatastoreRepository<BalanceRollup, String> {
+
+    List<BalanceRollup> findByOwner(String owner);
+
+    @Query("SELECT * FROM balanceRollups WHERE owner = @owner AND granularity = @granularity AND bucketStart >= @startDate AND bucketStart <= @endDate ORDER BY bucketStart ASC")
+    List<BalanceRollup> findByOwnerAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+            @Param("owner") String owner,
+            @Param("granularity") RollupGranularity granularity,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate);
+}
@@ -0,0 +1,13 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.lazyspender.backend.model.FxRate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FxRateRepository extends DatastoreRepository<FxRate, String> {
+
+    List<FxRate> findByCurrency(String currency);
+}
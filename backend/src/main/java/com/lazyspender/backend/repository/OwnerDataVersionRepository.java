@@ -0,0 +1,9 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.lazyspender.backend.model.OwnerDataVersion;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OwnerDataVersionRepository extends DatastoreRepository<OwnerDataVersion, String> {
+}
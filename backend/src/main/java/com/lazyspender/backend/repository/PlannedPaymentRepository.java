@@ -25,4 +25,11 @@ public interface PlannedPaymentRepository extends DatastoreRepository<PlannedPay
             ConfirmationType confirmationType,
             Instant nextDueDate
     );
+
+    List<PlannedPayment> findByShardAndStatusAndConfirmationTypeAndNextDueDateLessThanEqual(
+            int shard,
+            PaymentStatus status,
+            ConfirmationType confirmationType,
+            Instant nextDueDate
+    );
 }
@@ -0,0 +1,14 @@
+package com.lazyspender.backend.repository;
+
+import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
+import com.lazyspender.backend.model.ProcessingLease;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProcessingLeaseRepository extends DatastoreRepository<ProcessingLease, String> {
+
+    List<ProcessingLease> findByLeaseGroupAndExpiresAtGreaterThan(String leaseGroup, Instant now);
+}
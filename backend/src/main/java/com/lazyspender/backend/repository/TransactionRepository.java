@@ -4,8 +4,8 @@ import com.google.cloud.spring.data.datastore.repository.DatastoreRepository;
 import com.google.cloud.spring.data.datastore.repository.query.Query;
 import com.lazyspender.backend.model.Transaction;
 import com.lazyspender.backend.model.TransactionType;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,20 +15,42 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends DatastoreRepository<Transaction, String> {
 
-    Page<Transaction> findByOwner(String owner, Pageable pageable);
+    Slice<Transaction> findByOwner(String owner, Pageable pageable);
 
-    Page<Transaction> findAll(Pageable pageable);
+    List<Transaction> findByOwner(String owner);
 
-    List<Transaction> findByPlannedPaymentId(String plannedPaymentId);
+    @Query("SELECT * FROM transactions ORDER BY date DESC")
+    Slice<Transaction> findAllOrderByDateDesc(Pageable pageable);
 
-    int countByPlannedPaymentId(String plannedPaymentId);
+    List<Transaction> findByPlannedPaymentId(String plannedPaymentId);
 
     @Query("SELECT * FROM transactions WHERE owner = @owner AND date >= @startDate AND date <= @endDate ORDER BY date ASC")
     List<Transaction> findByOwnerAndDateBetweenOrderByDateAsc(@Param("owner") String owner, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
+    @Query("SELECT * FROM transactions WHERE owner = @owner AND account = @account AND date >= @startDate AND date <= @endDate ORDER BY date ASC")
+    List<Transaction> findByOwnerAndAccountAndDateBetweenOrderByDateAsc(@Param("owner") String owner, @Param("account") String account, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    @Query("SELECT * FROM transactions WHERE owner = @owner AND date >= @startDate AND date <= @endDate ORDER BY date ASC")
+    Slice<Transaction> findSliceByOwnerAndDateBetweenOrderByDateAsc(@Param("owner") String owner, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate, Pageable pageable);
+
+    @Query("SELECT * FROM transactions WHERE owner = @owner AND account = @account AND date >= @startDate AND date < @endDate ORDER BY date ASC")
+    List<Transaction> findByOwnerAndAccountAndDateGreaterThanEqualAndDateLessThanOrderByDateAsc(@Param("owner") String owner, @Param("account") String account, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
     @Query("SELECT SUM(amount) FROM transactions WHERE owner = @owner AND type = @type AND date < @beforeDate")
     Double sumAmountByOwnerAndTypeAndDateBefore(@Param("owner") String owner, @Param("type") TransactionType type, @Param("beforeDate") Instant beforeDate);
 
+    @Query("SELECT SUM(amount) FROM transactions WHERE owner = @owner AND type = @type AND currency = @currency AND date < @beforeDate")
+    Double sumAmountByOwnerAndTypeAndCurrencyAndDateBefore(@Param("owner") String owner, @Param("type") TransactionType type, @Param("currency") String currency, @Param("beforeDate") Instant beforeDate);
+
+    @Query("SELECT SUM(amount) FROM transactions WHERE owner = @owner AND account = @account AND type = @type AND currency = @currency AND date < @beforeDate")
+    Double sumAmountByOwnerAndAccountAndTypeAndCurrencyAndDateBefore(@Param("owner") String owner, @Param("account") String account, @Param("type") TransactionType type, @Param("currency") String currency, @Param("beforeDate") Instant beforeDate);
+
+    @Query("SELECT DISTINCT ON (currency) currency FROM transactions WHERE owner = @owner ORDER BY currency ASC")
+    List<String> findDistinctCurrenciesByOwner(@Param("owner") String owner);
+
+    @Query("SELECT DISTINCT ON (account) account FROM transactions WHERE owner = @owner ORDER BY account ASC")
+    List<String> findDistinctAccountsByOwner(@Param("owner") String owner);
+
     @Query("SELECT DISTINCT ON (note) note FROM transactions WHERE owner = @owner ORDER BY note ASC")
     List<String> findDistinctNotesByOwner(@Param("owner") String owner);
 }
@@ -0,0 +1,308 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lazyspender.backend.dto.CheckpointRebuildResponse;
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.BalanceCheckpoint;
+import com.lazyspender.backend.model.BalanceCheckpointState;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.repository.BalanceCheckpointRepository;
+import com.lazyspender.backend.repository.BalanceCheckpointStateRepository;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+import com.lazyspender.backend.util.Futures;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes per-account opening balances from monthly checkpoints.
+ * Checkpoints are created lazily while scanning and deleted when a back-dated write makes them stale.
+ * <p>
+ * A scan and a back-dated write can race on any instance, so both go through the owner's
+ * {@link BalanceCheckpointState}: an invalidation first marks checkpoints after the write's date as
+ * untrusted and moves the epoch on, then deletes them, then clears the mark. Scans don't use marked
+ * checkpoints, and save theirs in a transaction that checks the epoch is still the one they started with.
+ * An invalidation that fails part way leaves the mark in place until {@link #rebuild} is run.
+ */
+@Slf4j
+@Service
+public class BalanceCheckpointService {
+
+    private static final int MAX_STATE_UPDATE_ATTEMPTS = 3;
+
+    // A commit holds at most 500 mutations
+    private static final int CHECKPOINTS_PER_COMMIT = 400;
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final BalanceCheckpointStateRepository balanceCheckpointStateRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+                                    BalanceCheckpointStateRepository balanceCheckpointStateRepository,
+                                    TransactionRepository transactionRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    ExecutorService virtualThreadExecutor) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.balanceCheckpointStateRepository = balanceCheckpointStateRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    /**
+     * Calculate the combined balance of the given accounts before a date
+     *
+     * @param owner    The owner
+     * @param accounts Accounts to include
+     * @param date     Exclusive upper bound
+     * @return Sum of all transactions of those accounts strictly before the date
+     */
+    public double calculateOpeningBalance(String owner, Collection<String> accounts, Instant date) {
+        // Read before any checkpoint, so an invalidation from here on is seen when saving
+        BalanceCheckpointState checkpointState = state(owner);
+        Instant trustedUntil = checkpointState.getStaleFrom() != null && checkpointState.getStaleFrom().isBefore(date)
+                ? checkpointState.getStaleFrom()
+                : date;
+
+        // Each account scans from its own checkpoint, so a new or lagging account never widens another's scan
+        // and the accounts' lookups overlap on virtual threads
+        List<CompletableFuture<AccountState>> scans = new LinkedHashSet<>(accounts).stream()
+                .map(account -> CompletableFuture.supplyAsync(
+                        () -> scanAccount(owner, account, trustedUntil, date), virtualThreadExecutor))
+                .toList();
+
+        List<BalanceCheckpoint> newCheckpoints = new ArrayList<>();
+        double balance = 0;
+        for (CompletableFuture<AccountState> scan : scans) {
+            AccountState state = Futures.join(scan);
+            newCheckpoints.addAll(state.newCheckpoints);
+            balance += state.balance;
+        }
+
+        // Checkpoints past a mark would not be used anyway; they are recreated once it is cleared
+        if (!newCheckpoints.isEmpty() && checkpointState.getStaleFrom() == null) {
+            save(owner, checkpointState.getEpoch(), newCheckpoints);
+        }
+
+        return balance;
+    }
+
+    /**
+     * Balance of one account before a date, from its latest trusted checkpoint plus the rows after it
+     */
+    private AccountState scanAccount(String owner, String account, Instant trustedUntil, Instant date) {
+        AccountState state = balanceCheckpointRepository.findLatestByOwnerAndAccountAtOrBefore(owner, account, trustedUntil).stream()
+                .findFirst()
+                .map(checkpoint -> new AccountState(checkpoint.getCheckpointDate(), checkpoint.getBalance()))
+                .orElseGet(() -> new AccountState(Instant.EPOCH, 0));
+
+        if (state.checkpointDate.isBefore(date)) {
+            List<Transaction> transactions = transactionRepository
+                    .findByOwnerAndAccountAndDateGreaterThanEqualAndDateLessThanOrderByDateAsc(owner, account, state.checkpointDate, date);
+            for (Transaction tx : transactions) {
+                // Record the balance at the start of every month the scan crosses into
+                Instant monthStart = DateTimeUtils.startOfMonthUtc(tx.getDate());
+                if (monthStart.isAfter(state.checkpointDate)) {
+                    state.newCheckpoints.add(checkpoint(owner, account, monthStart, state.balance));
+                    state.checkpointDate = monthStart;
+                }
+                state.balance += (tx.getType() == TransactionType.INCOME) ? tx.getAmount() : -tx.getAmount();
+            }
+        }
+
+        // No transaction since the last checkpoint, so the balance carries over to the month of the date
+        Instant dateMonthStart = DateTimeUtils.startOfMonthUtc(date);
+        if (dateMonthStart.isAfter(state.checkpointDate)) {
+            state.newCheckpoints.add(checkpoint(owner, account, dateMonthStart, state.balance));
+        }
+        return state;
+    }
+
+    /**
+     * Delete all checkpoints of an owner and clear any mark left by a failed invalidation.
+     * Used to repair checkpoints after a failed invalidation; they are recreated by the next scans.
+     *
+     * @param owner The owner to rebuild
+     * @return Summary of the rebuild
+     */
+    public CheckpointRebuildResponse rebuild(String owner) {
+        // Nothing is trusted until every checkpoint is gone, and scans in flight can no longer save
+        updateState(owner, state -> {
+            state.setEpoch(state.getEpoch() + 1);
+            state.setStaleFrom(Instant.EPOCH);
+        });
+
+        List<BalanceCheckpoint> checkpoints = balanceCheckpointRepository.findByOwner(owner);
+        balanceCheckpointRepository.deleteAll(checkpoints);
+
+        // Invalidations still running only delete checkpoints that no longer exist
+        updateState(owner, state -> {
+            state.setEpoch(state.getEpoch() + 1);
+            state.setStaleFrom(null);
+            state.setPendingInvalidations(0);
+        });
+
+        // Trends cached on any instance may have been built on the deleted checkpoints
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(owner));
+
+        return CheckpointRebuildResponse.builder()
+                .owner(owner)
+                .checkpointsDeleted(checkpoints.size())
+                .build();
+    }
+
+    // Runs before the data version is bumped, so a trend computed for the new version never starts from a stale checkpoint
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        // Checkpoints only exist up to the current month, so current-month writes never invalidate any
+        Instant currentMonthStart = DateTimeUtils.startOfMonthUtc(DateTimeUtils.nowUtc());
+        Map<AccountKey, Instant> earliestChanges = new HashMap<>();
+        Stream.concat(event.removed().stream(), event.added().stream())
+                .filter(tx -> tx.getDate() != null && tx.getDate().isBefore(currentMonthStart))
+                .forEach(tx -> earliestChanges.merge(
+                        new AccountKey(tx.getOwner(), tx.getAccount()),
+                        tx.getDate(),
+                        (a, b) -> a.isBefore(b) ? a : b));
+
+        earliestChanges.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().owner(),
+                        Collectors.toMap(entry -> entry.getKey().account(), Map.Entry::getValue)))
+                .forEach(this::invalidate);
+    }
+
+    private void invalidate(String owner, Map<String, Instant> earliestByAccount) {
+        Instant staleFrom = earliestByAccount.values().stream().min(Instant::compareTo).orElseThrow();
+        try {
+            updateState(owner, state -> {
+                state.setEpoch(state.getEpoch() + 1);
+                if (state.getStaleFrom() == null || staleFrom.isBefore(state.getStaleFrom())) {
+                    state.setStaleFrom(staleFrom);
+                }
+                state.setPendingInvalidations(state.getPendingInvalidations() + 1);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to mark balance checkpoints of owner {} after {} as stale, rebuild required", owner, staleFrom, e);
+            return;
+        }
+
+        try {
+            earliestByAccount.forEach((account, date) -> {
+                List<BalanceCheckpoint> stale = balanceCheckpointRepository
+                        .findByOwnerAndAccountAndCheckpointDateGreaterThan(owner, account, date);
+                if (!stale.isEmpty()) {
+                    balanceCheckpointRepository.deleteAll(stale);
+                }
+            });
+            updateState(owner, state -> {
+                state.setEpoch(state.getEpoch() + 1);
+                state.setPendingInvalidations(Math.max(state.getPendingInvalidations() - 1, 0));
+                if (state.getPendingInvalidations() == 0) {
+                    state.setStaleFrom(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Opening balances stay correct, scanning past the mark, until a rebuild clears it
+            log.warn("Failed to invalidate balance checkpoints of owner {} after {}, left marked stale until a rebuild",
+                    owner, staleFrom, e);
+        }
+    }
+
+    private BalanceCheckpointState state(String owner) {
+        // A key lookup, so it is strongly consistent
+        return balanceCheckpointStateRepository.findById(owner)
+                .orElseGet(() -> BalanceCheckpointState.builder().owner(owner).build());
+    }
+
+    private void updateState(String owner, Consumer<BalanceCheckpointState> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    BalanceCheckpointState state = state(owner);
+                    change.accept(state);
+                    balanceCheckpointStateRepository.save(state);
+                });
+                return;
+            } catch (TransactionSystemException e) {
+                if (attempt >= MAX_STATE_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent balance checkpoint state update for owner {}, attempt {}", owner, attempt);
+            }
+        }
+    }
+
+    private void save(String owner, long epoch, List<BalanceCheckpoint> checkpoints) {
+        try {
+            for (int from = 0; from < checkpoints.size(); from += CHECKPOINTS_PER_COMMIT) {
+                List<BalanceCheckpoint> chunk = checkpoints.subList(from, Math.min(from + CHECKPOINTS_PER_COMMIT, checkpoints.size()));
+                boolean saved = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    if (state(owner).getEpoch() != epoch) {
+                        return false;
+                    }
+                    balanceCheckpointRepository.saveAll(chunk);
+                    return true;
+                }));
+                if (!saved) {
+                    log.debug("Balance checkpoints of owner {} invalidated during the scan, not saving them", owner);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Checkpoints only speed up later scans; this one's result does not depend on them
+            log.debug("Failed to save balance checkpoints of owner {}", owner, e);
+        }
+    }
+
+    private BalanceCheckpoint checkpoint(String owner, String account, Instant checkpointDate, double balance) {
+        return BalanceCheckpoint.builder()
+                .id(BalanceCheckpoint.idOf(owner, account, checkpointDate))
+                .owner(owner)
+                .account(account)
+                .checkpointDate(checkpointDate)
+                .balance(balance)
+                .build();
+    }
+
+    private record AccountKey(String owner, String account) {
+    }
+
+    private static final class AccountState {
+        private final List<BalanceCheckpoint> newCheckpoints = new ArrayList<>();
+        private Instant checkpointDate;
+        private double balance;
+
+        private AccountState(Instant checkpointDate, double balance) {
+            this.checkpointDate = checkpointDate;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lazyspender.backend.dto.RollupRebuildResponse;
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.BalanceRollup;
+import com.lazyspender.backend.model.BalanceRollupState;
+import com.lazyspender.backend.model.RollupGranularity;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.repository.BalanceRollupRepository;
+import com.lazyspender.backend.repository.BalanceRollupStateRepository;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the per-owner, per-account income/expense rollups by ISO week and month.
+ * An owner whose rollups may have drifted, because an update failed or a rebuild is running,
+ * is marked in {@link BalanceRollupState} and has its trends built from the raw transactions.
+ * So is an owner without a state: rollups are only used once a rebuild has backfilled the owner.
+ */
+@Slf4j
+@Service
+public class BalanceRollupService {
+
+    // A commit holds at most 500 mutations, one of which may be the owner's rollup state
+    private static final int ROLLUPS_PER_COMMIT = 400;
+
+    private final BalanceRollupRepository balanceRollupRepository;
+    private final BalanceRollupStateRepository balanceRollupStateRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public BalanceRollupService(BalanceRollupRepository balanceRollupRepository,
+                                BalanceRollupStateRepository balanceRollupStateRepository,
+                                TransactionRepository transactionRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.balanceRollupRepository = balanceRollupRepository;
+        this.balanceRollupStateRepository = balanceRollupStateRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BalanceRollup> getRollups(String owner, RollupGranularity granularity, Instant startDate, Instant endDate) {
+        return balanceRollupRepository
+                .findByOwnerAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(owner, granularity, startDate, endDate);
+    }
+
+    /**
+     * Check whether an owner's rollups can be used
+     *
+     * @param owner The owner
+     * @return False while the owner is marked for a rebuild, and until a first rebuild has backfilled the owner
+     */
+    public boolean isUsable(String owner) {
+        // Without a state the owner was never rebuilt, so the rollups hold at most the deltas since they were enabled
+        return balanceRollupStateRepository.findById(owner)
+                .map(state -> !state.isRebuildRequired())
+                .orElse(false);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Map<String, BalanceRollup> deltas = new HashMap<>();
+        event.removed().forEach(tx -> accumulate(deltas, tx, -1));
+        event.added().forEach(tx -> accumulate(deltas, tx, 1));
+
+        deltas.values().stream()
+                .collect(Collectors.groupingBy(BalanceRollup::getOwner))
+                .forEach(this::applyDeltas);
+    }
+
+    /**
+     * Recompute every rollup for an owner from the raw transactions.
+     * Used to backfill existing data and to repair drift after a failed incremental update.
+     * The new rollups are written over the old ones before the obsolete ones are deleted, and the
+     * owner stays marked until a rebuild completes without an incremental update racing with it.
+     *
+     * @param owner The owner to rebuild
+     * @return Summary of the rebuild
+     */
+    public RollupRebuildResponse rebuild(String owner) {
+        String token = UUID.randomUUID().toString();
+        updateState(owner, state -> {
+            state.setRebuildRequired(true);
+            state.setRebuildToken(token);
+            state.setChangedDuringRebuild(false);
+        });
+
+        List<Transaction> transactions = transactionRepository.findByOwner(owner);
+        Map<String, BalanceRollup> rollups = new HashMap<>();
+        transactions.forEach(tx -> accumulate(rollups, tx, 1));
+
+        List<BalanceRollup> written = new ArrayList<>(rollups.values());
+        for (int from = 0; from < written.size(); from += ROLLUPS_PER_COMMIT) {
+            balanceRollupRepository.saveAll(written.subList(from, Math.min(from + ROLLUPS_PER_COMMIT, written.size())));
+        }
+
+        List<BalanceRollup> obsolete = balanceRollupRepository.findByOwner(owner).stream()
+                .filter(rollup -> !rollups.containsKey(rollup.getId()))
+                .toList();
+        for (int from = 0; from < obsolete.size(); from += ROLLUPS_PER_COMMIT) {
+            balanceRollupRepository.deleteAll(obsolete.subList(from, Math.min(from + ROLLUPS_PER_COMMIT, obsolete.size())));
+        }
+
+        boolean completed = finishRebuild(owner, token);
+        if (!completed) {
+            log.warn("Transactions of owner {} changed during the rollup rebuild, rollups stay unused until it is run again", owner);
+        }
+
+        // Trends cached on any instance may have been built on the old rollups
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(owner));
+
+        return RollupRebuildResponse.builder()
+                .owner(owner)
+                .transactionsScanned(transactions.size())
+                .rollupsWritten(written.size())
+                .rollupsDeleted(obsolete.size())
+                .rebuildRequired(!completed)
+                .build();
+    }
+
+    private void applyDeltas(String owner, List<BalanceRollup> deltas) {
+        // The transactions are already saved; on failure the rollups are left to a rebuild and not used until then
+        try {
+            for (int from = 0; from < deltas.size(); from += ROLLUPS_PER_COMMIT) {
+                List<BalanceRollup> chunk = deltas.subList(from, Math.min(from + ROLLUPS_PER_COMMIT, deltas.size()));
+                transactionTemplate.executeWithoutResult(status -> applyChunk(owner, chunk));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update balance rollups for owner {}, marking them for a rebuild", owner, e);
+            try {
+                updateState(owner, state -> state.setRebuildRequired(true));
+            } catch (RuntimeException markFailure) {
+                log.error("Failed to mark balance rollups of owner {} for a rebuild", owner, markFailure);
+            }
+        }
+    }
+
+    private void applyChunk(String owner, List<BalanceRollup> deltas) {
+        // Read in the same transaction, so a rebuild that starts concurrently either sees this flag or is seen here
+        BalanceRollupState state = state(owner);
+        if (state.getRebuildToken() != null && !state.isChangedDuringRebuild()) {
+            state.setChangedDuringRebuild(true);
+            balanceRollupStateRepository.save(state);
+        }
+
+        Map<String, BalanceRollup> existing = StreamSupport
+                .stream(balanceRollupRepository.findAllById(deltas.stream().map(BalanceRollup::getId).toList()).spliterator(), false)
+                .collect(Collectors.toMap(BalanceRollup::getId, Function.identity()));
+
+        List<BalanceRollup> updated = deltas.stream()
+                .map(delta -> {
+                    BalanceRollup rollup = existing.get(delta.getId());
+                    if (rollup == null) {
+                        return delta;
+                    }
+                    rollup.setIncome(rollup.getIncome() + delta.getIncome());
+                    rollup.setExpense(rollup.getExpense() + delta.getExpense());
+                    if (delta.getCurrency() != null) {
+                        rollup.setCurrency(delta.getCurrency());
+                    }
+                    return rollup;
+                })
+                .toList();
+
+        balanceRollupRepository.saveAll(updated);
+    }
+
+    private boolean finishRebuild(String owner, String token) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            BalanceRollupState state = state(owner);
+            // A newer rebuild has taken over the mark
+            if (!token.equals(state.getRebuildToken())) {
+                return false;
+            }
+            // A racing update may have been overwritten or counted twice
+            boolean completed = !state.isChangedDuringRebuild();
+            state.setRebuildRequired(!completed);
+            state.setRebuildToken(null);
+            state.setChangedDuringRebuild(false);
+            balanceRollupStateRepository.save(state);
+            return completed;
+        }));
+    }
+
+    private BalanceRollupState state(String owner) {
+        return balanceRollupStateRepository.findById(owner)
+                .orElseGet(() -> BalanceRollupState.builder().owner(owner).build());
+    }
+
+    private void updateState(String owner, Consumer<BalanceRollupState> change) {
+        transactionTemplate.executeWithoutResult(status -> {
+            BalanceRollupState state = state(owner);
+            change.accept(state);
+            balanceRollupStateRepository.save(state);
+        });
+    }
+
+    private void accumulate(Map<String, BalanceRollup> rollups, Transaction tx, int sign) {
+        if (tx.getDate() == null || tx.getAccount() == null) {
+            return;
+        }
+        accumulate(rollups, tx, sign, RollupGranularity.WEEK, DateTimeUtils.startOfWeekUtc(tx.getDate()));
+        accumulate(rollups, tx, sign, RollupGranularity.MONTH, DateTimeUtils.startOfMonthUtc(tx.getDate()));
+    }
+
+    private void accumulate(Map<String, BalanceRollup> rollups, Transaction tx, int sign,
+                            RollupGranularity granularity, Instant bucketStart) {
+        String id = BalanceRollup.idOf(tx.getOwner(), tx.getAccount(), granularity, bucketStart);
+        BalanceRollup rollup = rollups.computeIfAbsent(id, key -> BalanceRollup.builder()
+                .id(key)
+                .owner(tx.getOwner())
+                .account(tx.getAccount())
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .build());
+
+        double amount = sign * tx.getAmount();
+        if (tx.getType() == TransactionType.INCOME) {
+            rollup.setIncome(rollup.getIncome() + amount);
+        } else {
+            rollup.setExpense(rollup.getExpense() + amount);
+        }
+        // Only additions carry the account's current currency forward
+        if (sign > 0 && tx.getCurrency() != null) {
+            rollup.setCurrency(tx.getCurrency());
+        }
+    }
+}
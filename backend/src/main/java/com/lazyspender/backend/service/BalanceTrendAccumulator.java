@@ -0,0 +1,284 @@
+package com.lazyspender.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.lazyspender.backend.dto.BalanceTrendDataPoint;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.model.TrendPeriod;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+/**
+ * Buckets date-ordered transactions into the data points of one trend period.
+ * Transactions are fed one at a time, so a single pass over a range can fill
+ * several periods at once.
+ * Bucket boundaries are computed once up front as epoch millis, and the per-transaction
+ * path only compares longs and adds into primitive arrays, so it allocates nothing.
+ * <p>
+ * With a converter, income and expense are converted at the rate of each row's day, while the
+ * balance is kept per currency and translated at the rate of each bucket's closing day. Every period
+ * then agrees on today's balance, however far back its opening balance was taken.
+ */
+final class BalanceTrendAccumulator {
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final DateTimeFormatter WEEK_LABEL = DateTimeFormatter.ofPattern("MMM d");
+
+    private final TrendPeriod period;
+    private final Instant startDate;
+
+    // bucketStarts[i] is the first millisecond of bucket i; the last entry is the end of the last bucket
+    private final long[] bucketStarts;
+    private final double[] income;
+    private final double[] expense;
+    private final double[] closingBalance;
+    private final int bucketCount;
+    private final FxConverter converter;
+    private final long endDay;
+
+    private int current;
+    private double cumulativeBalance;
+    private boolean empty = true;
+
+    // Only with a converter: the running balance in each currency held, in that currency
+    private String[] currencies;
+    private double[] currencyBalances;
+    private int currencyCount;
+    private int lastCurrencyIndex;
+
+    /**
+     * @param period         Bucket size and label format
+     * @param startDate      First instant of the trend; earlier transactions only move the opening balance
+     * @param endDate        Last instant of the trend
+     * @param openingBalance Balance just before the earliest transaction that will be fed
+     */
+    BalanceTrendAccumulator(TrendPeriod period, Instant startDate, Instant endDate, double openingBalance) {
+        this(period, startDate, endDate, openingBalance, null);
+    }
+
+    /**
+     * @param period          Bucket size and label format
+     * @param startDate       First instant of the trend; earlier transactions only move the opening balance
+     * @param endDate         Last instant of the trend
+     * @param openingBalances Balance per currency, in that currency, just before the earliest transaction fed
+     * @param converter       Converts into the trend's currency, or null if every amount is in it already
+     */
+    BalanceTrendAccumulator(TrendPeriod period, Instant startDate, Instant endDate, Map<String, Double> openingBalances,
+                            FxConverter converter) {
+        this(period, startDate, endDate, converter == null ? sum(openingBalances) : 0, converter);
+        if (converter != null) {
+            openingBalances.forEach((currency, balance) -> currencyBalances[currencyIndex(currency)] += balance);
+        }
+    }
+
+    private BalanceTrendAccumulator(TrendPeriod period, Instant startDate, Instant endDate, double openingBalance,
+                                    FxConverter converter) {
+        this.period = period;
+        this.startDate = startDate;
+        this.bucketStarts = bucketStarts(startDate, DateTimeUtils.toUtcZonedDateTime(endDate), period);
+        this.bucketCount = bucketStarts.length - 1;
+        this.income = new double[bucketCount];
+        this.expense = new double[bucketCount];
+        this.closingBalance = new double[bucketCount];
+        this.cumulativeBalance = openingBalance;
+        this.converter = converter;
+        this.endDay = DateTimeUtils.utcEpochDay(endDate);
+        if (converter != null) {
+            this.currencies = new String[4];
+            this.currencyBalances = new double[4];
+        }
+    }
+
+    /**
+     * Feed the next transaction; must not be earlier than the previous one
+     */
+    void add(Transaction tx) {
+        add(tx, tx.getAmount());
+    }
+
+    /**
+     * Feed the next transaction with its amount already converted into the trend's currency
+     */
+    void add(Transaction tx, double amount) {
+        if (tx.getDate().isBefore(startDate)) {
+            // Counted the same way as the opening balance SUM queries
+            if (tx.getType() == TransactionType.INCOME) {
+                cumulativeBalance += amount;
+                addToCurrencyBalance(tx, tx.getAmount());
+            } else if (tx.getType() == TransactionType.EXPENSE) {
+                cumulativeBalance -= amount;
+                addToCurrencyBalance(tx, -tx.getAmount());
+            }
+            return;
+        }
+
+        empty = false;
+
+        // Input is date-ordered, so the bucket index only ever moves forward
+        long millis = tx.getDate().toEpochMilli();
+        while (current < bucketCount && millis >= bucketStarts[current + 1]) {
+            closeBucket();
+        }
+        if (current == bucketCount) {
+            return;
+        }
+
+        if (tx.getType() == TransactionType.INCOME) {
+            cumulativeBalance += amount;
+            income[current] += amount;
+            addToCurrencyBalance(tx, tx.getAmount());
+        } else {
+            cumulativeBalance -= amount;
+            expense[current] += amount;
+            addToCurrencyBalance(tx, -tx.getAmount());
+        }
+    }
+
+    /**
+     * Close the remaining periods up to the end date
+     *
+     * @return Data points for periods with activity plus the first and last period
+     */
+    List<BalanceTrendDataPoint> finish() {
+        if (empty) {
+            // Return a single data point for today with the opening balance
+            Instant now = DateTimeUtils.nowUtc();
+            return new ArrayList<>(List.of(BalanceTrendDataPoint.builder()
+                    .label(formatDate(now, period))
+                    .timestamp(now)
+                    .balance(balanceOn(DateTimeUtils.utcEpochDay(now)))
+                    .income(0)
+                    .expense(0)
+                    .build()));
+        }
+
+        while (current < bucketCount) {
+            closeBucket();
+        }
+
+        List<BalanceTrendDataPoint> dataPoints = new ArrayList<>();
+        for (int i = 0; i < bucketCount; i++) {
+            // Add data point for this period (only if there was activity or it's the first/last period)
+            if (income[i] > 0 || expense[i] > 0 || i == 0 || i == bucketCount - 1) {
+                Instant periodStart = Instant.ofEpochMilli(bucketStarts[i]);
+                dataPoints.add(BalanceTrendDataPoint.builder()
+                        .label(formatDate(periodStart, period))
+                        .timestamp(periodStart)
+                        .balance(closingBalance[i])
+                        .income(income[i])
+                        .expense(expense[i])
+                        .build());
+            }
+        }
+        return dataPoints;
+    }
+
+    private void closeBucket() {
+        if (converter == null) {
+            closingBalance[current++] = cumulativeBalance;
+            return;
+        }
+        // The last day of the bucket, or the end date for the bucket still running
+        long closingDay = Math.min(DateTimeUtils.utcEpochDay(Instant.ofEpochMilli(bucketStarts[current + 1] - 1)), endDay);
+        closingBalance[current++] = balanceOn(closingDay);
+    }
+
+    private double balanceOn(long epochDay) {
+        if (converter == null) {
+            return cumulativeBalance;
+        }
+        double balance = 0;
+        for (int i = 0; i < currencyCount; i++) {
+            balance += converter.convert(currencyBalances[i], currencies[i], epochDay);
+        }
+        return balance;
+    }
+
+    private void addToCurrencyBalance(Transaction tx, double nativeAmount) {
+        if (converter != null) {
+            currencyBalances[currencyIndex(tx.getCurrency())] += nativeAmount;
+        }
+    }
+
+    private int currencyIndex(String currency) {
+        String key = (currency == null) ? converter.targetCurrency() : currency;
+        // Rows tend to come in runs of one currency, and an owner only holds a few
+        if (currencyCount > 0 && currencies[lastCurrencyIndex].equals(key)) {
+            return lastCurrencyIndex;
+        }
+        for (int i = 0; i < currencyCount; i++) {
+            if (currencies[i].equals(key)) {
+                lastCurrencyIndex = i;
+                return i;
+            }
+        }
+        if (currencyCount == currencies.length) {
+            currencies = Arrays.copyOf(currencies, currencyCount * 2);
+            currencyBalances = Arrays.copyOf(currencyBalances, currencyCount * 2);
+        }
+        currencies[currencyCount] = key;
+        lastCurrencyIndex = currencyCount;
+        return currencyCount++;
+    }
+
+    private static double sum(Map<String, Double> balances) {
+        return balances.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
+    }
+
+    /**
+     * Start of every bucket that begins before the end date, followed by the end of the last one
+     */
+    private static long[] bucketStarts(Instant startDate, ZonedDateTime endDateTime, TrendPeriod period) {
+        List<ZonedDateTime> starts = new ArrayList<>();
+        ZonedDateTime periodStart = initialPeriodStart(startDate, period);
+        while (periodStart.isBefore(endDateTime)) {
+            starts.add(periodStart);
+            periodStart = nextPeriodStart(periodStart, period);
+        }
+        starts.add(periodStart);
+
+        long[] millis = new long[starts.size()];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = starts.get(i).toInstant().toEpochMilli();
+        }
+        return millis;
+    }
+
+    static ZonedDateTime initialPeriodStart(Instant startDate, TrendPeriod period) {
+        ZonedDateTime zdt = DateTimeUtils.toUtcZonedDateTime(startDate);
+
+        return switch (period) {
+            case FROM_START, LAST_YEAR -> zdt.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            case LAST_12_WEEKS -> {
+                // Align to start of week (Monday)
+                yield zdt.with(DayOfWeek.MONDAY).truncatedTo(ChronoUnit.DAYS);
+            }
+        };
+    }
+
+    static ZonedDateTime nextPeriodStart(ZonedDateTime currentPeriodStart, TrendPeriod period) {
+        return switch (period) {
+            case FROM_START, LAST_YEAR -> currentPeriodStart.plusMonths(1);
+            case LAST_12_WEEKS -> currentPeriodStart.plusWeeks(1);
+        };
+    }
+
+    static String formatDate(Instant instant, TrendPeriod period) {
+        ZonedDateTime zdt = DateTimeUtils.toUtcZonedDateTime(instant);
+        DateTimeFormatter formatter = switch (period) {
+            case FROM_START, LAST_YEAR -> MONTH_LABEL;
+            case LAST_12_WEEKS -> WEEK_LABEL;
+        };
+        return zdt.format(formatter);
+    }
+}
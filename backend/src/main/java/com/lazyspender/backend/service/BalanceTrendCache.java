@@ -0,0 +1,133 @@
+package com.lazyspender.backend.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lazyspender.backend.config.BalanceTrendProperties;
+import com.lazyspender.backend.dto.BalanceTrendResponse;
+import com.lazyspender.backend.dto.CacheStatsResponse;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.TrendPeriod;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of computed balance trends.
+ * Entries are keyed by UTC day because the trend range ends at the end of today,
+ * so a new day always misses and yesterday's entries simply age out.
+ * They are also keyed by the owner's data version, so a write made through any instance
+ * makes every instance recompute, and a trend is never served under a newer ETag than its data,
+ * and by the exchange rate generation, so converted trends move to new rates with their ETags.
+ * The currencies each owner holds, which every trend computation needs, are kept the same way.
+ */
+@Component
+public class BalanceTrendCache implements MeterBinder {
+
+    private final Cache<Key, BalanceTrendResponse> cache;
+    private final Cache<OwnerVersion, List<String>> heldCurrencies;
+    private final OwnerDataVersionService ownerDataVersionService;
+
+    public BalanceTrendCache(BalanceTrendProperties balanceTrendProperties,
+                             OwnerDataVersionService ownerDataVersionService) {
+        this.ownerDataVersionService = ownerDataVersionService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(balanceTrendProperties.getCache().getMaximumSize())
+                .expireAfterWrite(balanceTrendProperties.getCache().getTtl())
+                .recordStats()
+                .build();
+        this.heldCurrencies = Caffeine.newBuilder()
+                .maximumSize(balanceTrendProperties.getCache().getMaximumSize())
+                .expireAfterWrite(balanceTrendProperties.getCache().getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "balanceTrends");
+        CaffeineCacheMetrics.monitor(registry, heldCurrencies, "heldCurrencies");
+    }
+
+    public BalanceTrendResponse get(String owner, List<String> accounts, TrendPeriod period, String currency,
+                                    long rateGeneration, Supplier<BalanceTrendResponse> loader) {
+        // Read before computing: a write racing with the computation moves the version on,
+        // so its result is stored under a key no later request asks for
+        long dataVersion = ownerDataVersionService.currentVersion(owner);
+        Key key = new Key(owner, dataVersion, normalize(accounts), period, currency, rateGeneration,
+                DateTimeUtils.toUtcLocalDate(DateTimeUtils.nowUtc()));
+
+        BalanceTrendResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        BalanceTrendResponse response = loader.get();
+        cache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Get the currencies an owner's transactions are in, at their current data version
+     *
+     * @param owner  The owner
+     * @param loader Queries the currencies of an owner
+     * @return The currencies, without null
+     */
+    public List<String> heldCurrencies(String owner, Function<String, List<String>> loader) {
+        OwnerVersion key = new OwnerVersion(owner, ownerDataVersionService.currentVersion(owner));
+        return heldCurrencies.get(key, k -> List.copyOf(loader.apply(k.owner())));
+    }
+
+    public void invalidate(String owner) {
+        cache.asMap().keySet().removeIf(key -> key.owner().equals(owner));
+        heldCurrencies.asMap().keySet().removeIf(key -> key.owner().equals(owner));
+    }
+
+    // Entries of older versions can no longer be hit; dropping them early just frees their room
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        event.owners().forEach(this::invalidate);
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private List<String> normalize(List<String> accounts) {
+        if (accounts == null) {
+            return List.of();
+        }
+        return accounts.stream()
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private record Key(String owner, long dataVersion, List<String> accounts, TrendPeriod period, String currency,
+                       long rateGeneration, LocalDate utcDay) {
+    }
+
+    private record OwnerVersion(String owner, long dataVersion) {
+    }
+}
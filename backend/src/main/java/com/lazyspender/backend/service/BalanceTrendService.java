@@ -2,21 +2,42 @@ package com.lazyspender.backend.service;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.lazyspender.backend.config.BalanceTrendProperties;
 import com.lazyspender.backend.dto.BalanceTrendDataPoint;
 import com.lazyspender.backend.dto.BalanceTrendResponse;
+import com.lazyspender.backend.dto.CacheStatsResponse;
+import com.lazyspender.backend.dto.MultiPeriodBalanceTrendResponse;
 import com.lazyspender.backend.dto.YAxisConfig;
+import com.lazyspender.backend.model.BalanceRollup;
+import com.lazyspender.backend.model.RollupGranularity;
 import com.lazyspender.backend.model.Transaction;
 import com.lazyspender.backend.model.TransactionType;
 import com.lazyspender.backend.model.TrendPeriod;
-import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.repository.AsyncTransactionRepository;
 import com.lazyspender.backend.util.DateTimeUtils;
+import com.lazyspender.backend.util.Futures;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,41 +45,362 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BalanceTrendService {
 
-    private final TransactionRepository transactionRepository;
+    private final BalanceRollupService balanceRollupService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final BalanceTrendCache balanceTrendCache;
+    private final BalanceTrendProperties balanceTrendProperties;
+    private final AsyncTransactionRepository asyncTransactionRepository;
+    private final ExecutorService virtualThreadExecutor;
+    private final FxRateTable fxRateTable;
+
+    /**
+     * Build a balance trend
+     *
+     * @param owner    The owner
+     * @param accounts Accounts to include, or empty for all
+     * @param period   Period to build
+     * @param currency Currency to express the trend in, or null for the owner's only currency,
+     *                 falling back to the reference currency when they hold several
+     * @return The trend, with amounts in other currencies converted at the rate of their day
+     */
+    public BalanceTrendResponse getBalanceTrend(String owner, List<String> accounts, TrendPeriod period, String currency) {
+        // Resolved again when computing, after the cache has read the data version it stores the result under
+        long rateGeneration = resolveCurrency(owner, currency).rateGeneration();
+        return balanceTrendCache.get(owner, accounts, period, currency, rateGeneration,
+                () -> computeBalanceTrend(owner, accounts, period, resolveCurrency(owner, currency)));
+    }
+
+    /**
+     * Get the exchange rate generation an owner's trends are converted at, which their ETags include.
+     * Trends that need no conversion do not depend on rates, so they keep their tags across rate reloads
+     *
+     * @param owner    The owner
+     * @param currency Requested currency, or null, see {@link #getBalanceTrend}
+     * @return See {@link FxRateTable#generation()}, or 0 when the owner's trends need no conversion
+     */
+    public long rateGeneration(String owner, String currency) {
+        return resolveCurrency(owner, currency).rateGeneration();
+    }
+
+    /**
+     * Find the currencies of an owner that a trend could not convert. Their amounts would otherwise be
+     * counted as if they were in the trend's currency
+     *
+     * @param owner    The owner
+     * @param currency Requested currency, or null, see {@link #getBalanceTrend}
+     * @return Currencies held without rates into the trend's currency, empty when the trend can be built
+     */
+    public List<String> unconvertibleCurrencies(String owner, String currency) {
+        TrendCurrency trendCurrency = resolveCurrency(owner, currency);
+        if (!trendCurrency.needsConversion()) {
+            return List.of();
+        }
+        if (!fxRateTable.supports(trendCurrency.currency())) {
+            return trendCurrency.foreignCurrencies();
+        }
+        return trendCurrency.foreignCurrencies().stream()
+                .filter(heldCurrency -> !fxRateTable.supports(heldCurrency))
+                .toList();
+    }
+
+    /**
+     * Build several trend periods, optionally broken down per account, from one scan of the widest range.
+     * Every period's buckets are filled in the same sweep over the date-ordered transactions, and
+     * narrower periods derive their opening balance from the rows before their start.
+     *
+     * @param owner     The owner
+     * @param accounts  Accounts to include, or empty for all
+     * @param periods   Periods to build
+     * @param breakdown Also build every period for each account on its own
+     * @param currency  Currency to express the trends in, see {@link #getBalanceTrend}
+     * @return One trend per period, plus one per account and period when a breakdown is requested
+     */
+    public MultiPeriodBalanceTrendResponse getMultiPeriodBalanceTrend(String owner, List<String> accounts,
+                                                                      Set<TrendPeriod> periods, boolean breakdown,
+                                                                      String currency) {
+        Instant endDate = DateTimeUtils.endOfTodayUtc();
+        Map<TrendPeriod, Instant> startDates = new EnumMap<>(TrendPeriod.class);
+        periods.forEach(period -> startDates.put(period, calculateStartDate(period)));
+        Instant widestStart = Collections.min(startDates.values());
+
+        CompletableFuture<List<Transaction>> transactionsFuture = findTransactionsAsync(owner, accounts, widestStart, endDate);
+        boolean allAccounts = accounts == null || accounts.isEmpty();
+        // Accounts without rows in the range still have a balance, so the breakdown covers every account ever used
+        CompletableFuture<List<String>> ownerAccountsFuture = (breakdown && allAccounts)
+                ? asyncTransactionRepository.findDistinctAccountsByOwner(owner)
+                : CompletableFuture.completedFuture(List.of());
+        TrendCurrency trendCurrency = resolveCurrency(owner, currency);
+
+        // FROM_START scans from the epoch, so every period's opening balance comes from the scan itself
+        boolean fromStart = periods.contains(TrendPeriod.FROM_START);
+        CompletableFuture<Map<String, Double>> openingBalance = fromStart
+                ? CompletableFuture.completedFuture(Map.of())
+                : openingBalancesAsync(owner, accounts, widestStart, trendCurrency);
+
+        List<Transaction> transactions = Futures.join(transactionsFuture);
+        Map<TrendPeriod, BalanceTrendResponse> trends = sweep(transactions, startDates, endDate, Futures.join(openingBalance), trendCurrency);
+
+        Map<String, Map<TrendPeriod, BalanceTrendResponse>> accountTrends = null;
+        if (breakdown) {
+            Map<String, List<Transaction>> byAccount = transactions.stream()
+                    .filter(tx -> tx.getAccount() != null)
+                    .collect(Collectors.groupingBy(Transaction::getAccount, LinkedHashMap::new, Collectors.toList()));
+            Set<String> breakdownAccounts = new LinkedHashSet<>(allAccounts ? Futures.join(ownerAccountsFuture) : accounts);
+            breakdownAccounts.remove(null);
+
+            // Opening balances are independent lookups, so they overlap on virtual threads
+            Map<String, CompletableFuture<Map<String, Double>>> openingBalances = new HashMap<>();
+            if (!fromStart) {
+                breakdownAccounts.forEach(account -> openingBalances.put(account,
+                        openingBalancesAsync(owner, List.of(account), widestStart, trendCurrency)));
+            }
+
+            // The opening balance lookups are already running; each sweep waits for its own
+            accountTrends = breakdownAccounts.stream()
+                    .collect(Collectors.toMap(
+                            Function.identity(),
+                            account -> sweep(
+                                    byAccount.getOrDefault(account, List.of()),
+                                    startDates,
+                                    endDate,
+                                    fromStart ? Map.of() : Futures.join(openingBalances.get(account)),
+                                    trendCurrency),
+                            (first, second) -> first,
+                            TreeMap::new));
+        }
+
+        return MultiPeriodBalanceTrendResponse.builder()
+                .trends(trends)
+                .accountTrends(accountTrends)
+                .build();
+    }
+
+    private Map<TrendPeriod, BalanceTrendResponse> sweep(List<Transaction> transactions, Map<TrendPeriod, Instant> startDates,
+                                                         Instant endDate, Map<String, Double> openingBalances,
+                                                         TrendCurrency trendCurrency) {
+        FxConverter converter = converterFor(trendCurrency);
+        Map<TrendPeriod, BalanceTrendAccumulator> accumulators = new EnumMap<>(TrendPeriod.class);
+        startDates.forEach((period, startDate) -> {
+            // For FROM_START period, use the first transaction date as start date
+            Instant start = (period == TrendPeriod.FROM_START && !transactions.isEmpty())
+                    ? transactions.get(0).getDate()
+                    : startDate;
+            accumulators.put(period, new BalanceTrendAccumulator(period, start, endDate, openingBalances, converter));
+        });
+
+        // Converted once per row, then shared by every period
+        for (Transaction tx : transactions) {
+            double amount = (converter == null) ? tx.getAmount() : converter.convert(tx);
+            for (BalanceTrendAccumulator accumulator : accumulators.values()) {
+                accumulator.add(tx, amount);
+            }
+        }
+
+        Map<TrendPeriod, BalanceTrendResponse> trends = new EnumMap<>(TrendPeriod.class);
+        accumulators.forEach((period, accumulator) ->
+                trends.put(period, buildResponse(accumulator.finish(), trendCurrency.currency())));
+        return trends;
+    }
+
+    /**
+     * Get the owner's balance across all accounts just before the given instant, in one currency
+     *
+     * @param owner    The owner
+     * @param date     Exclusive cut-off
+     * @param currency Currency to express the balance in; see {@link #unconvertibleCurrencies} for held
+     *                 currencies it cannot be converted from
+     * @return Income minus expense of every earlier transaction, each currency's share converted at the rate of the cut-off day
+     */
+    public CompletableFuture<Double> getBalanceAtAsync(String owner, Instant date, String currency) {
+        TrendCurrency trendCurrency = resolveCurrency(owner, currency);
+        FxConverter converter = converterFor(trendCurrency);
+        long epochDay = DateTimeUtils.utcEpochDay(date);
+        return openingBalancesAsync(owner, null, date, trendCurrency).thenApply(balances -> balances.entrySet().stream()
+                .mapToDouble(entry -> converter == null
+                        ? entry.getValue()
+                        : converter.convert(entry.getValue(), entry.getKey(), epochDay))
+                .sum());
+    }
+
+    /**
+     * Get the currencies an owner's transactions are in
+     *
+     * @param owner The owner
+     * @return The currencies, without null; cached per data version alongside the trends
+     */
+    public List<String> heldCurrencies(String owner) {
+        return balanceTrendCache.heldCurrencies(owner, key ->
+                Futures.join(asyncTransactionRepository.findDistinctCurrenciesByOwner(key)).stream()
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    /**
+     * Check whether trends can be expressed in a currency
+     *
+     * @param currency Currency code
+     * @return True if rates into the currency are known
+     */
+    public boolean supportsCurrency(String currency) {
+        return fxRateTable.supports(currency);
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return balanceTrendCache.stats();
+    }
+
+    private BalanceTrendResponse computeBalanceTrend(String owner, List<String> accounts, TrendPeriod period,
+                                                     TrendCurrency trendCurrency) {
+        // Rollups hold plain sums, so they only serve trends that need no conversion
+        if (balanceTrendProperties.isRollupsEnabled() && !trendCurrency.needsConversion()
+                && balanceRollupService.isUsable(owner)) {
+            return getBalanceTrendFromRollups(owner, accounts, period, trendCurrency.currency());
+        }
 
-    public BalanceTrendResponse getBalanceTrend(String owner, List<String> accounts, TrendPeriod period) {
         // Calculate date range based on period
         // Use end of today in UTC to capture all transactions for today
         Instant endDate = DateTimeUtils.endOfTodayUtc();
         Instant startDate = calculateStartDate(period);
 
-        // Fetch transactions using custom GQL query
-        List<Transaction> allTransactions = transactionRepository
-                .findByOwnerAndDateBetweenOrderByDateAsc(owner, startDate, endDate);
+        // Calculate opening balance (balance before the start date) while the range is fetched
+        // For FROM_START period, opening balance is 0 since we're starting from the first transaction
+        CompletableFuture<Map<String, Double>> openingBalanceFuture = (period == TrendPeriod.FROM_START)
+                ? CompletableFuture.completedFuture(Map.of())
+                : openingBalancesAsync(owner, accounts, startDate, trendCurrency);
 
-        // Filter by accounts (Datastore doesn't support IN predicate in derived queries)
-        List<Transaction> transactions = allTransactions.stream()
-                .filter(tx -> accounts == null || accounts.isEmpty() || accounts.contains(tx.getAccount()))
-                .toList();
+        List<Transaction> transactions = Futures.join(findTransactionsAsync(owner, accounts, startDate, endDate));
 
         // For FROM_START period, use the first transaction date as start date
         if (period == TrendPeriod.FROM_START && !transactions.isEmpty()) {
             startDate = transactions.get(0).getDate();
         }
 
-        // Calculate opening balance (balance before the start date)
-        // For FROM_START period, opening balance is 0 since we're starting from the first transaction
-        double openingBalance = (period == TrendPeriod.FROM_START) ? 0 : calculateOpeningBalance(owner, accounts, startDate);
+        Map<String, Double> openingBalances = Futures.join(openingBalanceFuture);
 
         // Calculate balance trend data points (aggregation based on period)
-        List<BalanceTrendDataPoint> dataPoints = calculateDataPoints(transactions, startDate, endDate, period, openingBalance);
+        List<BalanceTrendDataPoint> dataPoints = calculateDataPoints(transactions, startDate, endDate, period, openingBalances,
+                converterFor(trendCurrency));
+
+        return buildResponse(dataPoints, trendCurrency.currency());
+    }
+
+    /**
+     * Build the trend from pre-aggregated week/month rollups instead of raw transactions.
+     * Rollups cover whole buckets, so the first bucket, which the start date usually cuts, is read from
+     * the raw transactions instead; its income and expense then match the raw path for the same request.
+     */
+    private BalanceTrendResponse getBalanceTrendFromRollups(String owner, List<String> accounts, TrendPeriod period, String currency) {
+        Instant endDate = DateTimeUtils.endOfTodayUtc();
+        RollupGranularity granularity = (period == TrendPeriod.LAST_12_WEEKS) ? RollupGranularity.WEEK : RollupGranularity.MONTH;
+
+        // FROM_START starts at the first transaction and counts its whole first bucket, so every bucket is a rollup
+        Instant startDate = (period == TrendPeriod.FROM_START) ? Instant.EPOCH : calculateStartDate(period);
+        ZonedDateTime firstBucket = BalanceTrendAccumulator.initialPeriodStart(startDate, period);
+        Instant alignedStart = firstBucket.toInstant();
+        Instant rollupStart = (period == TrendPeriod.FROM_START)
+                ? Instant.EPOCH
+                : BalanceTrendAccumulator.nextPeriodStart(firstBucket, period).toInstant();
+
+        CompletableFuture<Double> openingBalanceFuture = (period == TrendPeriod.FROM_START)
+                ? CompletableFuture.completedFuture(0.0)
+                : openingBalanceAsync(owner, accounts, alignedStart);
+        CompletableFuture<List<Transaction>> firstBucketFuture = (period == TrendPeriod.FROM_START)
+                ? CompletableFuture.completedFuture(List.of())
+                : findTransactionsAsync(owner, accounts, alignedStart, rollupStart.minusMillis(1));
+
+        Set<String> accountFilter = (accounts == null) ? Set.of() : new HashSet<>(accounts);
+        List<BalanceRollup> rollups = balanceRollupService.getRollups(owner, granularity, rollupStart, endDate).stream()
+                .filter(rollup -> accountFilter.isEmpty() || accountFilter.contains(rollup.getAccount()))
+                .toList();
+
+        if (period == TrendPeriod.FROM_START && !rollups.isEmpty()) {
+            startDate = rollups.get(0).getBucketStart();
+        }
+
+        double openingBalance = Futures.join(openingBalanceFuture);
+
+        // Rows of the first bucket before the start date only move the opening balance, as on the raw path.
+        // Each later bucket becomes at most one income and one expense entry, so the period walk stays O(buckets)
+        BalanceTrendAccumulator accumulator = new BalanceTrendAccumulator(period, startDate, endDate, openingBalance);
+        Futures.join(firstBucketFuture).forEach(accumulator::add);
+        toBucketTransactions(rollups).forEach(accumulator::add);
+        List<BalanceTrendDataPoint> dataPoints = accumulator.finish();
+
+        return buildResponse(dataPoints, currency);
+    }
+
+    /**
+     * Fetch the requested accounts' rows, or every row when no filter is given.
+     * Datastore has no IN predicate for GQL, so each account gets its own (owner, account, date)
+     * query, run in parallel. The date-ordered results are then k-way merged into one ordered list.
+     */
+    private CompletableFuture<List<Transaction>> findTransactionsAsync(String owner, List<String> accounts, Instant startDate, Instant endDate) {
+        if (accounts == null || accounts.isEmpty()) {
+            return asyncTransactionRepository.findByOwnerAndDateBetweenOrderByDateAsc(owner, startDate, endDate);
+        }
+
+        List<CompletableFuture<List<Transaction>>> queries = new LinkedHashSet<>(accounts).stream()
+                .map(account -> asyncTransactionRepository
+                        .findByOwnerAndAccountAndDateBetweenOrderByDateAsc(owner, account, startDate, endDate))
+                .toList();
+
+        return CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new))
+                .thenApply(done -> mergeByDate(queries.stream().map(CompletableFuture::join).toList()));
+    }
+
+    private List<Transaction> mergeByDate(List<List<Transaction>> sortedLists) {
+        if (sortedLists.size() == 1) {
+            return sortedLists.get(0);
+        }
+
+        // Heap entries are {list index, position within list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                Comparator.comparing((int[] head) -> sortedLists.get(head[0]).get(head[1]).getDate()));
+        int total = 0;
+        for (int i = 0; i < sortedLists.size(); i++) {
+            total += sortedLists.get(i).size();
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<Transaction> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Transaction> source = sortedLists.get(head[0]);
+            merged.add(source.get(head[1]));
+            if (++head[1] < source.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
 
+    private List<Transaction> toBucketTransactions(List<BalanceRollup> rollups) {
+        List<Transaction> bucketTransactions = new ArrayList<>();
+        for (BalanceRollup rollup : rollups) {
+            if (rollup.getIncome() != 0) {
+                bucketTransactions.add(Transaction.builder()
+                        .date(rollup.getBucketStart())
+                        .amount(rollup.getIncome())
+                        .type(TransactionType.INCOME)
+                        .build());
+            }
+            if (rollup.getExpense() != 0) {
+                bucketTransactions.add(Transaction.builder()
+                        .date(rollup.getBucketStart())
+                        .amount(rollup.getExpense())
+                        .type(TransactionType.EXPENSE)
+                        .build());
+            }
+        }
+        return bucketTransactions;
+    }
+
+    private BalanceTrendResponse buildResponse(List<BalanceTrendDataPoint> dataPoints, String currency) {
         // Calculate total balance
         double totalBalance = calculateTotalBalance(dataPoints);
 
-        // Determine currency (from first transaction or default)
-        String currency = transactions.isEmpty() ? "PHP" : transactions.get(0).getCurrency();
-
         // Calculate Y-axis configuration
         YAxisConfig yAxisConfig = calculateYAxisConfig(dataPoints);
 
@@ -79,140 +421,123 @@ public class BalanceTrendService {
         };
     }
 
-    private double calculateOpeningBalance(String owner, List<String> accounts, Instant startDate) {
-        // If accounts filter is specified, we need to fetch and filter manually
-        // since Datastore doesn't support SUM with IN predicate
+    private CompletableFuture<Double> openingBalanceAsync(String owner, List<String> accounts, Instant startDate) {
+        // Datastore can't SUM with an IN predicate, so account-filtered balances start
+        // from the nearest per-account checkpoint and only add the transactions after it
         if (accounts != null && !accounts.isEmpty()) {
-            List<Transaction> previousTransactions = transactionRepository
-                    .findByOwnerAndDateBetweenOrderByDateAsc(owner, Instant.EPOCH, startDate);
-
-            // Filter by accounts and calculate balance
-            double openingBalance = 0;
-            for (Transaction tx : previousTransactions) {
-                if (accounts.contains(tx.getAccount())) {
-                    if (tx.getType() == TransactionType.INCOME) {
-                        openingBalance += tx.getAmount();
-                    } else {
-                        openingBalance -= tx.getAmount();
-                    }
-                }
-            }
-            return openingBalance;
+            return CompletableFuture.supplyAsync(
+                    () -> balanceCheckpointService.calculateOpeningBalance(owner, accounts, startDate),
+                    virtualThreadExecutor);
         }
 
-        // Use aggregate SUM queries for better performance when no account filter
-        Double totalIncome = transactionRepository.sumAmountByOwnerAndTypeAndDateBefore(owner, TransactionType.INCOME, startDate);
-        Double totalExpense = transactionRepository.sumAmountByOwnerAndTypeAndDateBefore(owner, TransactionType.EXPENSE, startDate);
+        // Use aggregate SUM queries for better performance when no account filter; both run at once
+        CompletableFuture<Double> totalIncome = asyncTransactionRepository.sumAmountByOwnerAndTypeAndDateBefore(owner, TransactionType.INCOME, startDate);
+        CompletableFuture<Double> totalExpense = asyncTransactionRepository.sumAmountByOwnerAndTypeAndDateBefore(owner, TransactionType.EXPENSE, startDate);
 
         // Handle null values (when no transactions exist)
-        double income = (totalIncome != null) ? totalIncome : 0;
-        double expense = (totalExpense != null) ? totalExpense : 0;
-
-        return income - expense;
+        return totalIncome.thenCombine(totalExpense, (income, expense) ->
+                ((income != null) ? income : 0) - ((expense != null) ? expense : 0));
     }
 
-    private List<BalanceTrendDataPoint> calculateDataPoints(List<Transaction> transactions, Instant startDate, Instant endDate, TrendPeriod period, double openingBalance) {
-        List<BalanceTrendDataPoint> dataPoints = new ArrayList<>();
-
-        if (transactions.isEmpty()) {
-            // Return a single data point for today with the opening balance
-            Instant now = DateTimeUtils.nowUtc();
-            dataPoints.add(BalanceTrendDataPoint.builder()
-                    .label(formatDate(now, period))
-                    .timestamp(now)
-                    .balance(openingBalance)
-                    .income(0)
-                    .expense(0)
-                    .build());
-            return dataPoints;
+    /**
+     * Opening balance per currency, each in its own currency, for the accumulator to translate at the
+     * rate of each bucket's closing day. Without conversion it is the plain balance under the trend's currency.
+     */
+    private CompletableFuture<Map<String, Double>> openingBalancesAsync(String owner, List<String> accounts, Instant startDate,
+                                                                        TrendCurrency trendCurrency) {
+        CompletableFuture<Double> plainBalance = openingBalanceAsync(owner, accounts, startDate);
+        if (!trendCurrency.needsConversion()) {
+            return plainBalance.thenApply(balance -> Map.of(trendCurrency.currency(), balance));
         }
 
-        // Group transactions based on period and calculate cumulative balance
-        double cumulativeBalance = openingBalance;
-        ZonedDateTime currentPeriodStart = getInitialPeriodStart(startDate, period);
-        ZonedDateTime endDateTime = DateTimeUtils.toUtcZonedDateTime(endDate);
-
-        int transactionIndex = 0;
-
-        while (currentPeriodStart.isBefore(endDateTime)) {
-            Instant periodStart = currentPeriodStart.toInstant();
-            Instant periodEnd = getNextPeriodStart(currentPeriodStart, period).toInstant();
-
-            double periodIncome = 0;
-            double periodExpense = 0;
-
-            // Process all transactions for this period
-            while (transactionIndex < transactions.size()) {
-                Transaction tx = transactions.get(transactionIndex);
-
-                if (tx.getDate().isBefore(periodStart)) {
-                    transactionIndex++;
-                    continue;
-                }
-
-                if (tx.getDate().isBefore(periodEnd)) {
-                    double amount = tx.getAmount();
-
-                    if (tx.getType() == TransactionType.INCOME) {
-                        cumulativeBalance += amount;
-                        periodIncome += amount;
-                    } else {
-                        cumulativeBalance -= amount;
-                        periodExpense += amount;
+        Map<String, CompletableFuture<Double>> foreignBalances = new LinkedHashMap<>();
+        trendCurrency.foreignCurrencies().forEach(currency ->
+                foreignBalances.put(currency, currencyBalanceAsync(owner, accounts, currency, startDate)));
+
+        return CompletableFuture.allOf(foreignBalances.values().toArray(CompletableFuture[]::new))
+                .thenCombine(plainBalance, (done, balance) -> {
+                    // Rows without a currency count as the trend's currency, as they do when fed
+                    Map<String, Double> balances = new HashMap<>();
+                    double ownShare = balance;
+                    for (Map.Entry<String, CompletableFuture<Double>> entry : foreignBalances.entrySet()) {
+                        double foreign = entry.getValue().join();
+                        balances.put(entry.getKey(), foreign);
+                        ownShare -= foreign;
                     }
+                    balances.put(trendCurrency.currency(), ownShare);
+                    return balances;
+                });
+    }
 
-                    transactionIndex++;
-                } else {
-                    break;
-                }
-            }
-
-            // Add data point for this period (only if there was activity or it's the first/last period)
-            if (periodIncome > 0 || periodExpense > 0 ||
-                currentPeriodStart.equals(getInitialPeriodStart(startDate, period)) ||
-                !getNextPeriodStart(currentPeriodStart, period).isBefore(endDateTime)) {
-
-                dataPoints.add(BalanceTrendDataPoint.builder()
-                        .label(formatDate(periodStart, period))
-                        .timestamp(periodStart)
-                        .balance(cumulativeBalance)
-                        .income(periodIncome)
-                        .expense(periodExpense)
-                        .build());
+    /**
+     * Balance of the owner's transactions in one currency before a date, in that currency.
+     * Account filters need one pair of SUM queries per account, all run at once.
+     */
+    private CompletableFuture<Double> currencyBalanceAsync(String owner, List<String> accounts, String currency, Instant startDate) {
+        List<CompletableFuture<Double>> income = new ArrayList<>();
+        List<CompletableFuture<Double>> expense = new ArrayList<>();
+        if (accounts == null || accounts.isEmpty()) {
+            income.add(asyncTransactionRepository.sumAmountByOwnerAndTypeAndCurrencyAndDateBefore(owner, TransactionType.INCOME, currency, startDate));
+            expense.add(asyncTransactionRepository.sumAmountByOwnerAndTypeAndCurrencyAndDateBefore(owner, TransactionType.EXPENSE, currency, startDate));
+        } else {
+            for (String account : new LinkedHashSet<>(accounts)) {
+                income.add(asyncTransactionRepository.sumAmountByOwnerAndAccountAndTypeAndCurrencyAndDateBefore(
+                        owner, account, TransactionType.INCOME, currency, startDate));
+                expense.add(asyncTransactionRepository.sumAmountByOwnerAndAccountAndTypeAndCurrencyAndDateBefore(
+                        owner, account, TransactionType.EXPENSE, currency, startDate));
             }
-
-            currentPeriodStart = getNextPeriodStart(currentPeriodStart, period);
         }
 
-        return dataPoints;
+        List<CompletableFuture<Double>> all = new ArrayList<>(income);
+        all.addAll(expense);
+        return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new))
+                .thenApply(done -> total(income) - total(expense));
     }
 
-    private ZonedDateTime getInitialPeriodStart(Instant startDate, TrendPeriod period) {
-        ZonedDateTime zdt = DateTimeUtils.toUtcZonedDateTime(startDate);
+    private static double total(List<CompletableFuture<Double>> sums) {
+        return sums.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+    }
 
-        return switch (period) {
-            case FROM_START, LAST_YEAR -> zdt.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
-            case LAST_12_WEEKS -> {
-                // Align to start of week (Monday)
-                yield zdt.with(java.time.DayOfWeek.MONDAY).truncatedTo(ChronoUnit.DAYS);
-            }
-        };
+    /**
+     * Pick the trend's currency: the requested one, else the owner's only currency, else the reference currency.
+     * Conversion is only needed when the owner holds a currency other than the chosen one.
+     * The currencies held are cached alongside the trends, so only the owner's first trend per data version queries them.
+     * The rate generation is only taken when there is something to convert.
+     */
+    private TrendCurrency resolveCurrency(String owner, String requested) {
+        List<String> held = heldCurrencies(owner);
+        String currency = (requested != null) ? requested
+                : (held.size() == 1) ? held.get(0)
+                : fxRateTable.referenceCurrency();
+        List<String> foreign = held.stream()
+                .filter(heldCurrency -> !heldCurrency.equals(currency))
+                .toList();
+        return new TrendCurrency(currency, foreign, foreign.isEmpty() ? 0 : fxRateTable.generation());
     }
 
-    private ZonedDateTime getNextPeriodStart(ZonedDateTime currentPeriodStart, TrendPeriod period) {
-        return switch (period) {
-            case FROM_START, LAST_YEAR -> currentPeriodStart.plusMonths(1);
-            case LAST_12_WEEKS -> currentPeriodStart.plusWeeks(1);
-        };
+    /**
+     * @return A new converter for one thread's use, or null when no conversion is needed
+     */
+    private FxConverter converterFor(TrendCurrency trendCurrency) {
+        return trendCurrency.needsConversion()
+                ? fxRateTable.converterTo(trendCurrency.currency(), trendCurrency.rateGeneration())
+                : null;
     }
 
-    private String formatDate(Instant instant, TrendPeriod period) {
-        ZonedDateTime zdt = DateTimeUtils.toUtcZonedDateTime(instant);
-        DateTimeFormatter formatter = switch (period) {
-            case FROM_START, LAST_YEAR -> DateTimeFormatter.ofPattern("MMM yyyy");
-            case LAST_12_WEEKS -> DateTimeFormatter.ofPattern("MMM d");
-        };
-        return zdt.format(formatter);
+    private List<BalanceTrendDataPoint> calculateDataPoints(List<Transaction> transactions, Instant startDate, Instant endDate,
+                                                            TrendPeriod period, Map<String, Double> openingBalances,
+                                                            FxConverter converter) {
+        BalanceTrendAccumulator accumulator = new BalanceTrendAccumulator(period, startDate, endDate, openingBalances, converter);
+        if (converter == null) {
+            transactions.forEach(accumulator::add);
+        } else {
+            transactions.forEach(tx -> accumulator.add(tx, converter.convert(tx)));
+        }
+        return accumulator.finish();
     }
 
     private double calculateTotalBalance(List<BalanceTrendDataPoint> dataPoints) {
@@ -254,4 +579,16 @@ public class BalanceTrendService {
                 .interval(interval)
                 .build();
     }
+
+    /**
+     * @param currency          Currency the trend is expressed in
+     * @param foreignCurrencies Other currencies the owner holds, whose amounts are converted
+     * @param rateGeneration    Rate generation every conversion of the trend uses, 0 when there is none
+     */
+    private record TrendCurrency(String currency, List<String> foreignCurrencies, long rateGeneration) {
+
+        boolean needsConversion() {
+            return !foreignCurrencies.isEmpty();
+        }
+    }
 }
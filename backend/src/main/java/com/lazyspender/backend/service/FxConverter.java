@@ -0,0 +1,71 @@
+package com.lazyspender.backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converts transaction amounts into one target currency, each at the rate of its own day.
+ * The series of the last currency seen is kept at hand, so a run of rows in the same currency
+ * costs one array read per row, and every series used is kept for the converter's lifetime.
+ * Not thread-safe; use one per sweep.
+ */
+@Slf4j
+final class FxConverter {
+
+    private final FxRateTable fxRateTable;
+    private final String targetCurrency;
+    private final long generation;
+
+    private final Map<String, Optional<FxRateSeries>> seriesByCurrency = new HashMap<>();
+
+    private String lastCurrency;
+    private FxRateSeries lastSeries;
+
+    FxConverter(FxRateTable fxRateTable, String targetCurrency, long generation) {
+        this.fxRateTable = fxRateTable;
+        this.targetCurrency = targetCurrency;
+        this.generation = generation;
+    }
+
+    String targetCurrency() {
+        return targetCurrency;
+    }
+
+    /**
+     * Amount of a transaction in the target currency. Rows without a currency are taken to be in it already
+     */
+    double convert(Transaction tx) {
+        return convert(tx.getAmount(), tx.getCurrency(), DateTimeUtils.utcEpochDay(tx.getDate()));
+    }
+
+    /**
+     * @param amount   Amount in {@code currency}
+     * @param currency Currency of the amount, null for the target currency
+     * @param epochDay UTC day whose rate applies
+     * @return The amount in the target currency, unchanged if the currency has no rates
+     */
+    double convert(double amount, String currency, long epochDay) {
+        if (currency == null || currency.equals(targetCurrency)) {
+            return amount;
+        }
+        if (!currency.equals(lastCurrency)) {
+            lastCurrency = currency;
+            lastSeries = seriesByCurrency.computeIfAbsent(currency, this::load).orElse(null);
+        }
+        return lastSeries == null ? amount : amount * lastSeries.rateOn(epochDay);
+    }
+
+    private Optional<FxRateSeries> load(String currency) {
+        Optional<FxRateSeries> series = fxRateTable.series(currency, targetCurrency, generation);
+        if (series.isEmpty()) {
+            log.warn("No rates to convert {} into {}, counting its amounts unconverted", currency, targetCurrency);
+        }
+        return series;
+    }
+}
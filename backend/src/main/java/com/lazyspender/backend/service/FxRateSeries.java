@@ -0,0 +1,85 @@
+package com.lazyspender.backend.service;
+
+import java.util.NavigableMap;
+
+/**
+ * Daily rates of one currency pair in a primitive array indexed by epoch day, so a lookup inside an
+ * aggregation loop is a subtraction and an array read.
+ * Days without a quote carry the previous quote forward; days outside the quoted range use the
+ * nearest end.
+ */
+final class FxRateSeries {
+
+    private static final FxRateSeries IDENTITY = new FxRateSeries(0, new double[] {1.0});
+
+    private final long firstEpochDay;
+    private final double[] rates;
+
+    private FxRateSeries(long firstEpochDay, double[] rates) {
+        this.firstEpochDay = firstEpochDay;
+        this.rates = rates;
+    }
+
+    static FxRateSeries identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * @param quotes Rate by epoch day, at least one
+     */
+    static FxRateSeries of(NavigableMap<Long, Double> quotes) {
+        long first = quotes.firstKey();
+        double[] rates = new double[Math.toIntExact(quotes.lastKey() - first + 1)];
+        double rate = quotes.firstEntry().getValue();
+        for (int i = 0; i < rates.length; i++) {
+            Double quote = quotes.get(first + i);
+            if (quote != null) {
+                rate = quote;
+            }
+            rates[i] = rate;
+        }
+        return new FxRateSeries(first, rates);
+    }
+
+    /**
+     * Rate of the pair (base / quote) from two series against the same reference currency
+     */
+    FxRateSeries dividedBy(FxRateSeries quote) {
+        if (quote == IDENTITY) {
+            return this;
+        }
+        if (this == IDENTITY) {
+            return quote.inverted();
+        }
+        long first = Math.min(firstEpochDay, quote.firstEpochDay);
+        long last = Math.max(lastEpochDay(), quote.lastEpochDay());
+        double[] divided = new double[Math.toIntExact(last - first + 1)];
+        for (int i = 0; i < divided.length; i++) {
+            divided[i] = rateOn(first + i) / quote.rateOn(first + i);
+        }
+        return new FxRateSeries(first, divided);
+    }
+
+    double rateOn(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        if (index <= 0) {
+            return rates[0];
+        }
+        if (index >= rates.length) {
+            return rates[rates.length - 1];
+        }
+        return rates[(int) index];
+    }
+
+    private FxRateSeries inverted() {
+        double[] inverted = new double[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            inverted[i] = 1.0 / rates[i];
+        }
+        return new FxRateSeries(firstEpochDay, inverted);
+    }
+
+    private long lastEpochDay() {
+        return firstEpochDay + rates.length - 1;
+    }
+}
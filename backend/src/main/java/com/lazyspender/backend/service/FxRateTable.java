@@ -0,0 +1,206 @@
+package com.lazyspender.backend.service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lazyspender.backend.config.FxProperties;
+import com.lazyspender.backend.model.FxRate;
+import com.lazyspender.backend.repository.FxRateRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exchange rates between any two currencies on any day, from the rates of each currency against
+ * the reference currency. Rates come from the {@code fxRates} kind or a CSV file. Each requested
+ * pair is expanded once into a day-indexed series and kept in a bounded cache.
+ * Rates are reloaded once per generation: wall-clock time divided into refresh intervals, so every
+ * instance moves to new rates at the same moment and responses can be tagged with the generation.
+ */
+@Slf4j
+@Service
+public class FxRateTable implements MeterBinder {
+
+    private final FxRateRepository fxRateRepository;
+    private final FxProperties fxProperties;
+    private final Cache<Pair, Optional<FxRateSeries>> pairs;
+
+    // Parsed rates file with the generation it was read in, replaced once the generation moves on
+    private volatile FileRates fileRates;
+
+    public FxRateTable(FxRateRepository fxRateRepository, FxProperties fxProperties) {
+        this.fxRateRepository = fxRateRepository;
+        this.fxProperties = fxProperties;
+        this.pairs = Caffeine.newBuilder()
+                .maximumSize(fxProperties.getSeriesCacheSize())
+                .expireAfterWrite(fxProperties.getRefreshInterval())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pairs, "fxRateSeries");
+    }
+
+    public String referenceCurrency() {
+        return fxProperties.getReferenceCurrency();
+    }
+
+    /**
+     * Get the current rate generation. It is the same on every instance and changes whenever rates may
+     * have been reloaded, so anything computed from rates can use it as a version
+     *
+     * @return Number of refresh intervals since the epoch
+     */
+    public long generation() {
+        return System.currentTimeMillis() / fxProperties.getRefreshInterval().toMillis();
+    }
+
+    /**
+     * Check whether amounts can be converted into a currency
+     *
+     * @param currency Currency code
+     * @return True for the reference currency and every currency with at least one rate
+     */
+    public boolean supports(String currency) {
+        return series(currency, referenceCurrency()).isPresent();
+    }
+
+    /**
+     * Start converting into a target currency at the current rates, see {@link FxConverter}
+     *
+     * @param targetCurrency Currency code
+     * @return A converter for use by a single thread
+     */
+    FxConverter converterTo(String targetCurrency) {
+        return converterTo(targetCurrency, generation());
+    }
+
+    /**
+     * Start converting into a target currency at the rates of one generation
+     *
+     * @param targetCurrency Currency code
+     * @param generation     See {@link #generation()}
+     * @return A converter for use by a single thread
+     */
+    FxConverter converterTo(String targetCurrency, long generation) {
+        return new FxConverter(this, targetCurrency, generation);
+    }
+
+    /**
+     * Get the daily rates of a currency pair
+     *
+     * @param from Currency converted from
+     * @param to   Currency converted into
+     * @return Units of {@code to} one unit of {@code from} is worth per day, or empty if either has no rates
+     */
+    Optional<FxRateSeries> series(String from, String to) {
+        return series(from, to, generation());
+    }
+
+    Optional<FxRateSeries> series(String from, String to, long generation) {
+        return pairs.get(new Pair(from, to, generation), this::load);
+    }
+
+    private Optional<FxRateSeries> load(Pair pair) {
+        Optional<FxRateSeries> from = againstReference(pair.from(), pair.generation());
+        Optional<FxRateSeries> to = againstReference(pair.to(), pair.generation());
+        if (from.isEmpty() || to.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(from.get().dividedBy(to.get()));
+    }
+
+    private Optional<FxRateSeries> againstReference(String currency, long generation) {
+        if (currency.equals(referenceCurrency())) {
+            return Optional.of(FxRateSeries.identity());
+        }
+
+        NavigableMap<Long, Double> quotes = switch (fxProperties.getSource()) {
+            case DATASTORE -> datastoreQuotes(currency);
+            case FILE -> fileRates(generation).quotes().getOrDefault(currency, new TreeMap<>());
+        };
+        return quotes.isEmpty() ? Optional.empty() : Optional.of(FxRateSeries.of(quotes));
+    }
+
+    private NavigableMap<Long, Double> datastoreQuotes(String currency) {
+        NavigableMap<Long, Double> quotes = new TreeMap<>();
+        for (FxRate rate : fxRateRepository.findByCurrency(currency)) {
+            if (rate.getDate() != null && rate.getRate() > 0) {
+                quotes.put(DateTimeUtils.utcEpochDay(rate.getDate()), rate.getRate());
+            }
+        }
+        return quotes;
+    }
+
+    private FileRates fileRates(long generation) {
+        FileRates current = fileRates;
+        if (current == null || current.generation() < generation) {
+            current = new FileRates(readRatesFile(), generation);
+            fileRates = current;
+        }
+        return current;
+    }
+
+    private Map<String, NavigableMap<Long, Double>> readRatesFile() {
+        if (fxProperties.getRatesFile() == null) {
+            throw new IllegalStateException("lazyspender.fx.rates-file must be set when the rate source is FILE");
+        }
+
+        Map<String, NavigableMap<Long, Double>> quotes = new HashMap<>();
+        try (Reader reader = new InputStreamReader(fxProperties.getRatesFile().getInputStream(), StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader)) {
+            String[] header = csvReader.readNext();
+            if (header == null) {
+                return quotes;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                try {
+                    long epochDay = LocalDate.parse(row[columns.get("date")].trim()).toEpochDay();
+                    String currency = row[columns.get("currency")].trim().toUpperCase(Locale.ROOT);
+                    double rate = Double.parseDouble(row[columns.get("rate")].trim());
+                    if (rate > 0) {
+                        quotes.computeIfAbsent(currency, key -> new TreeMap<>()).put(epochDay, rate);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Skipping invalid rate on line {} of {}", csvReader.getLinesRead(), fxProperties.getRatesFile(), e);
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new IllegalStateException("Failed to read rates file " + fxProperties.getRatesFile(), e);
+        }
+        log.info("Loaded rates of {} currencies from {}", quotes.size(), fxProperties.getRatesFile());
+        return quotes;
+    }
+
+    private record Pair(String from, String to, long generation) {
+    }
+
+    private record FileRates(Map<String, NavigableMap<Long, Double>> quotes, long generation) {
+    }
+}
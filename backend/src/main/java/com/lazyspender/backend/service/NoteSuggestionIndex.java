@@ -0,0 +1,175 @@
+package com.lazyspender.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DatastoreCursors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-owner prefix index of transaction notes, ranked by how often and how recently each note was used.
+ * An owner's index is built from a cursor scan of their transactions on first access and then kept
+ * current from transaction events, so a lookup is a sorted-map range scan instead of a Datastore query.
+ * Events only cover writes made through this instance, so an index is rebuilt {@link #MAX_AGE} after
+ * its scan however often it is used, which bounds how long writes made elsewhere can be missing.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteSuggestionIndex implements MeterBinder {
+
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+
+    private final TransactionRepository transactionRepository;
+
+    private final Cache<String, OwnerNotes> indexes = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfter(new Expiry<String, OwnerNotes>() {
+                @Override
+                public long expireAfterCreate(String owner, OwnerNotes notes, long currentTime) {
+                    return MAX_AGE.toNanos();
+                }
+
+                // Applying an event is an update; it must not push back the rebuild
+                @Override
+                public long expireAfterUpdate(String owner, OwnerNotes notes, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String owner, OwnerNotes notes, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, indexes, "noteSuggestionIndexes");
+    }
+
+    /**
+     * Suggest notes starting with a prefix, ignoring case
+     *
+     * @param owner  The owner
+     * @param prefix Typed text, empty for the most used notes overall
+     * @param limit  Maximum number of suggestions
+     * @return Notes ordered by usage count, then by most recent use
+     */
+    public List<String> suggest(String owner, String prefix, int limit) {
+        OwnerNotes notes = indexes.get(owner, this::build);
+        return notes.suggest(normalize(prefix), limit);
+    }
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        // computeIfPresent waits for an in-progress build, so no write slips between scan and publish.
+        // A write the scan already saw is counted twice, which only nudges its rank.
+        event.removed().forEach(tx -> indexes.asMap().computeIfPresent(tx.getOwner(), (owner, notes) -> {
+            notes.remove(tx);
+            return notes;
+        }));
+        event.added().forEach(tx -> indexes.asMap().computeIfPresent(tx.getOwner(), (owner, notes) -> {
+            notes.add(tx);
+            return notes;
+        }));
+    }
+
+    private OwnerNotes build(String owner) {
+        OwnerNotes notes = new OwnerNotes();
+        String cursor = null;
+        do {
+            Slice<Transaction> batch = transactionRepository.findByOwner(owner,
+                    DatastoreCursors.resume(SCAN_BATCH_SIZE, Sort.unsorted(), cursor));
+            batch.forEach(notes::add);
+            cursor = DatastoreCursors.nextCursor(batch);
+        } while (cursor != null);
+        return notes;
+    }
+
+    private static String normalize(String note) {
+        return note == null ? "" : note.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class NoteStats {
+        private String display;
+        private int count;
+        private Instant lastUsed = Instant.EPOCH;
+    }
+
+    private static final class OwnerNotes {
+
+        private static final Comparator<NoteStats> RANK = Comparator
+                .comparingInt((NoteStats stats) -> stats.count)
+                .thenComparing(stats -> stats.lastUsed);
+
+        // Keyed by lower-cased note so a prefix is a contiguous key range
+        private final NavigableMap<String, NoteStats> notes = new TreeMap<>();
+
+        private synchronized void add(Transaction tx) {
+            String key = normalize(tx.getNote());
+            if (key.isEmpty()) {
+                return;
+            }
+            NoteStats stats = notes.computeIfAbsent(key, k -> new NoteStats());
+            stats.count++;
+            Instant used = tx.getDate() == null ? Instant.EPOCH : tx.getDate();
+            if (!used.isBefore(stats.lastUsed)) {
+                stats.lastUsed = used;
+                stats.display = tx.getNote().trim();
+            }
+        }
+
+        private synchronized void remove(Transaction tx) {
+            String key = normalize(tx.getNote());
+            NoteStats stats = notes.get(key);
+            if (stats != null && --stats.count <= 0) {
+                notes.remove(key);
+            }
+        }
+
+        private synchronized List<String> suggest(String prefix, int limit) {
+            NavigableMap<String, NoteStats> range = prefix.isEmpty()
+                    ? notes
+                    : notes.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+            // Min-heap of the best `limit` entries seen so far
+            PriorityQueue<NoteStats> best = new PriorityQueue<>(limit + 1, RANK);
+            for (NoteStats stats : range.values()) {
+                best.add(stats);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<String> suggestions = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                suggestions.add(best.poll().display);
+            }
+            return suggestions.reversed();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.OwnerDataVersion;
+import com.lazyspender.backend.repository.OwnerDataVersionRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-owner data versions behind the ETags of the read endpoints.
+ * A version is bumped only after the write it covers has been stored, so a client
+ * holding the new version can never be answered with data older than it.
+ */
+@Slf4j
+@Service
+public class OwnerDataVersionService {
+
+    private static final int MAX_BUMP_ATTEMPTS = 3;
+
+    private final OwnerDataVersionRepository ownerDataVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIngestQueue transactionIngestQueue;
+
+    public OwnerDataVersionService(OwnerDataVersionRepository ownerDataVersionRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   TransactionIngestQueue transactionIngestQueue) {
+        this.ownerDataVersionRepository = ownerDataVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionIngestQueue = transactionIngestQueue;
+    }
+
+    /**
+     * Get the strong ETag of an owner's current data
+     *
+     * @param owner The owner
+     * @return Quoted ETag value
+     */
+    public String etag(String owner) {
+        return "\"" + currentVersion(owner) + "\"";
+    }
+
+    /**
+     * Get a strong ETag for responses that also depend on the current UTC day,
+     * such as trends whose range ends today
+     *
+     * @param owner The owner
+     * @return Quoted ETag value
+     */
+    public String dailyEtag(String owner) {
+        return "\"" + dailyTag(owner) + "\"";
+    }
+
+    /**
+     * Get a day-scoped strong ETag for one of several representations served at the same URL
+     *
+     * @param owner   The owner
+     * @param variant Identifies the representation, e.g. the negotiated format
+     * @return Quoted ETag value
+     */
+    public String dailyEtag(String owner, String variant) {
+        return "\"" + dailyTag(owner) + "-" + variant + "\"";
+    }
+
+    private String dailyTag(String owner) {
+        return currentVersion(owner) + "-" + DateTimeUtils.toUtcLocalDate(DateTimeUtils.nowUtc());
+    }
+
+    /**
+     * Get the current data version of an owner. Instance-local caches of data behind an ETag
+     * key their entries by it, so an entry built on another instance's older data is never
+     * served under a newer ETag
+     *
+     * @param owner The owner
+     * @return The version, 0 if the owner has never written anything
+     */
+    public long currentVersion(String owner) {
+        // Queued writes bump the version once stored; waiting for them keeps a 304 from hiding the client's own writes
+        transactionIngestQueue.awaitFlushed(owner);
+
+        // A key lookup, so it is strongly consistent and much cheaper than the query it saves
+        return ownerDataVersionRepository.findById(owner)
+                .map(OwnerDataVersion::getVersion)
+                .orElse(0L);
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        event.owners().forEach(this::bump);
+    }
+
+    @EventListener
+    public void onOwnerDataChanged(OwnerDataChangedEvent event) {
+        bump(event.owner());
+    }
+
+    private void bump(String owner) {
+        for (int attempt = 1; attempt <= MAX_BUMP_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    long current = ownerDataVersionRepository.findById(owner)
+                            .map(OwnerDataVersion::getVersion)
+                            .orElse(0L);
+                    ownerDataVersionRepository.save(new OwnerDataVersion(owner, nextVersion(current)));
+                });
+                return;
+            } catch (TransactionSystemException e) {
+                log.debug("Concurrent data version bump for owner {}, attempt {}", owner, attempt);
+            }
+        }
+
+        // Under sustained contention fall back to a blind write; a fresh timestamp still differs
+        // from every ETag handed out so far, which is all a conditional GET needs
+        log.warn("Data version bump for owner {} kept conflicting, writing without a transaction", owner);
+        ownerDataVersionRepository.save(new OwnerDataVersion(owner, nextVersion(0)));
+    }
+
+    private static long nextVersion(long current) {
+        // Time-based so versions keep increasing even after a non-transactional fallback write
+        long now = ChronoUnit.MICROS.between(Instant.EPOCH, DateTimeUtils.nowUtc());
+        return Math.max(current + 1, now);
+    }
+}
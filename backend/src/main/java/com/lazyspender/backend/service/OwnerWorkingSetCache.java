@@ -0,0 +1,109 @@
+package com.lazyspender.backend.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lazyspender.backend.config.WorkingSetCacheProperties;
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.model.User;
+import com.lazyspender.backend.repository.PlannedPaymentRepository;
+import com.lazyspender.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through per-owner cache of the data every screen starts from: the owner's user with its
+ * accounts, and all of the owner's planned payments. Entries are keyed by the owner's data version,
+ * which every write bumps whichever instance makes it, so a navigating owner costs one key lookup
+ * per read until they edit something, and an entry is never older than the ETag it is served under.
+ * Cached entities are shared between requests and must be treated as read-only.
+ */
+@Component
+public class OwnerWorkingSetCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final PlannedPaymentRepository plannedPaymentRepository;
+    private final OwnerDataVersionService ownerDataVersionService;
+
+    // Optional so that an owner without a user is remembered too, until their user is created
+    private final Cache<OwnerVersion, Optional<User>> users;
+    private final Cache<OwnerVersion, List<PlannedPayment>> plannedPayments;
+
+    public OwnerWorkingSetCache(UserRepository userRepository,
+                                PlannedPaymentRepository plannedPaymentRepository,
+                                OwnerDataVersionService ownerDataVersionService,
+                                WorkingSetCacheProperties properties) {
+        this.userRepository = userRepository;
+        this.plannedPaymentRepository = plannedPaymentRepository;
+        this.ownerDataVersionService = ownerDataVersionService;
+        this.users = newCache(properties);
+        this.plannedPayments = newCache(properties);
+    }
+
+    private static <V> Cache<OwnerVersion, V> newCache(WorkingSetCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "ownerUsers");
+        CaffeineCacheMetrics.monitor(registry, plannedPayments, "ownerPlannedPayments");
+    }
+
+    /**
+     * Get the user of an owner
+     *
+     * @param owner The owner
+     * @return The user, or empty if the owner has none
+     */
+    public Optional<User> user(String owner) {
+        return users.get(currentKey(owner), key -> userRepository.findByOwner(key.owner()));
+    }
+
+    /**
+     * Get all planned payments of an owner
+     *
+     * @param owner The owner
+     * @return Unmodifiable list of the owner's planned payments, in any status
+     */
+    public List<PlannedPayment> plannedPayments(String owner) {
+        return plannedPayments.get(currentKey(owner), key -> List.copyOf(plannedPaymentRepository.findByOwner(key.owner())));
+    }
+
+    public void invalidate(String owner) {
+        users.asMap().keySet().removeIf(key -> key.owner().equals(owner));
+        plannedPayments.asMap().keySet().removeIf(key -> key.owner().equals(owner));
+    }
+
+    // Entries of older versions can no longer be hit; dropping them early just frees their room
+    @EventListener
+    public void onOwnerDataChanged(OwnerDataChangedEvent event) {
+        invalidate(event.owner());
+    }
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        event.owners().forEach(this::invalidate);
+    }
+
+    private OwnerVersion currentKey(String owner) {
+        // Read before loading: a write racing with the load moves the version on, leaving its entry unused
+        return new OwnerVersion(owner, ownerDataVersionService.currentVersion(owner));
+    }
+
+    private record OwnerVersion(String owner, long dataVersion) {
+    }
+}
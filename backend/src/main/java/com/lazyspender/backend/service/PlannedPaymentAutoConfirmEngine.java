@@ -0,0 +1,147 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lazyspender.backend.config.PlannedPaymentProperties;
+import com.lazyspender.backend.dto.AutoConfirmRunResponse;
+import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Posts due AUTO planned payments in parallel on virtual threads.
+ * At most {@code concurrency} payments are processed at once and every missed
+ * occurrence up to the start of the run is caught up.
+ * Each instance only processes the shards it leases, so throughput grows with the
+ * number of instances; the per-payment version check makes overlaps harmless.
+ * Only one run executes at a time per instance; an overlapping trigger is skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlannedPaymentAutoConfirmEngine {
+
+    private final PlannedPaymentService plannedPaymentService;
+    private final PlannedPaymentShardLeaseManager shardLeaseManager;
+    private final ExecutorService virtualThreadExecutor;
+    private final PlannedPaymentProperties plannedPaymentProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile AutoConfirmRunResponse lastRun;
+
+    @Scheduled(
+            fixedDelayString = "${lazyspender.planned-payments.auto-confirm.interval:5m}",
+            initialDelayString = "${lazyspender.planned-payments.auto-confirm.interval:5m}")
+    public void scheduledRun() {
+        if (plannedPaymentProperties.getAutoConfirm().isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Run the engine once
+     *
+     * @return Run report, or empty if another run is already in progress
+     */
+    public Optional<AutoConfirmRunResponse> run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Auto-confirm run skipped, previous run still in progress");
+            return Optional.empty();
+        }
+        try {
+            AutoConfirmRunResponse report = execute();
+            lastRun = report;
+            return Optional.of(report);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<AutoConfirmRunResponse> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    private AutoConfirmRunResponse execute() {
+        PlannedPaymentProperties.AutoConfirm settings = plannedPaymentProperties.getAutoConfirm();
+        Instant now = DateTimeUtils.nowUtc();
+        long startedAt = System.nanoTime();
+
+        Set<Integer> shards = shardLeaseManager.acquireShards();
+        List<PlannedPayment> duePayments = shards.isEmpty()
+                ? List.of()
+                : plannedPaymentService.findDueAutoConfirmPayments(shards, now);
+
+        // Acquired on the submitting thread so no more than `concurrency` tasks ever exist
+        Semaphore permits = new Semaphore(settings.getConcurrency());
+        List<PendingPayment> pending = new ArrayList<>(duePayments.size());
+        try {
+            for (PlannedPayment payment : duePayments) {
+                permits.acquire();
+                Future<Integer> posted = virtualThreadExecutor.submit(() -> {
+                    try {
+                        return plannedPaymentService
+                                .catchUpPlannedPayment(payment, now, settings.getMaxOccurrencesPerRun())
+                                .size();
+                    } finally {
+                        permits.release();
+                    }
+                });
+                pending.add(new PendingPayment(payment.getId(), posted));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int processed = 0;
+        int failed = 0;
+        int transactionsPosted = 0;
+        for (PendingPayment payment : pending) {
+            try {
+                transactionsPosted += payment.posted().get();
+                processed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+            } catch (ExecutionException e) {
+                log.error("Failed to auto-confirm planned payment {}", payment.id(), e.getCause());
+                failed++;
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        double transactionsPerSecond = durationMillis == 0 ? transactionsPosted : transactionsPosted * 1000.0 / durationMillis;
+
+        log.info("Auto-confirm run on shards {}: {} due, {} processed, {} failed, {} transactions in {} ms ({} tx/s)",
+                shards, duePayments.size(), processed, failed, transactionsPosted, durationMillis,
+                String.format("%.1f", transactionsPerSecond));
+
+        return AutoConfirmRunResponse.builder()
+                .startedAt(now)
+                .instanceId(settings.getInstanceId())
+                .shards(List.copyOf(shards))
+                .durationMillis(durationMillis)
+                .duePayments(duePayments.size())
+                .processedPayments(processed)
+                .failedPayments(failed)
+                .transactionsPosted(transactionsPosted)
+                .transactionsPerSecond(transactionsPerSecond)
+                .build();
+    }
+
+    private record PendingPayment(String id, Future<Integer> posted) {
+    }
+}
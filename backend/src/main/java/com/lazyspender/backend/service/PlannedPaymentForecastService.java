@@ -0,0 +1,320 @@
+package com.lazyspender.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lazyspender.backend.dto.ForecastDataPoint;
+import com.lazyspender.backend.dto.ForecastResponse;
+import com.lazyspender.backend.model.EndType;
+import com.lazyspender.backend.model.PaymentStatus;
+import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.model.RecurrenceType;
+import com.lazyspender.backend.util.DateTimeUtils;
+import com.lazyspender.backend.util.Futures;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Projects the owner's balance forward by expanding every active planned payment to the horizon.
+ * Recurrences are compiled once per payment version into plain numbers and stepped with
+ * epoch-day arithmetic; the per-payment streams are merged in date order through a heap.
+ * The schedule follows {@link RecurrenceCalculator} and its completion rules exactly.
+ * <p>
+ * The projection is in the owner's only currency, across transactions and active payments, or else in the
+ * reference currency like the balance trend. Payments in other currencies are converted at today's rate.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlannedPaymentForecastService implements MeterBinder {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final OwnerWorkingSetCache ownerWorkingSetCache;
+    private final BalanceTrendService balanceTrendService;
+    private final FxRateTable fxRateTable;
+
+    // Keyed by every field the schedule depends on, so an edited or advanced payment simply misses
+    private final Cache<RecurrenceKey, CompiledRecurrence> compiledRecurrences = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .recordStats()
+            .build();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, compiledRecurrences, "compiledRecurrences");
+    }
+
+    /**
+     * Find the currencies of an owner that a forecast could not convert into its currency
+     *
+     * @param owner The owner
+     * @return Currencies of transactions or active planned payments without rates, empty when the forecast can be built
+     */
+    public List<String> unconvertibleCurrencies(String owner) {
+        return resolveCurrency(owner, activePlannedPayments(owner)).foreignCurrencies().stream()
+                .filter(currency -> !fxRateTable.supports(currency))
+                .toList();
+    }
+
+    /**
+     * Get the exchange rate generation an owner's forecast is converted at, which its ETag includes
+     *
+     * @param owner The owner
+     * @return See {@link FxRateTable#generation()}, or 0 when the forecast needs no conversion
+     */
+    public long rateGeneration(String owner) {
+        return resolveCurrency(owner, activePlannedPayments(owner)).rateGeneration();
+    }
+
+    /**
+     * Forecast the owner's balance over the coming months
+     *
+     * @param owner         The owner
+     * @param horizonMonths Number of months to project
+     * @return Daily projected balances on days with planned payments
+     */
+    public ForecastResponse forecast(String owner, int horizonMonths) {
+        Instant now = DateTimeUtils.nowUtc();
+        Instant to = DateTimeUtils.toUtcZonedDateTime(now).plusMonths(horizonMonths).toInstant();
+        long todayEpochDay = Math.floorDiv(now.getEpochSecond(), SECONDS_PER_DAY);
+        long endSecond = to.getEpochSecond();
+
+        // The payments decide the currency, so they come first; the balance lookup then runs in the
+        // background while the recurrences are compiled
+        List<PlannedPayment> plannedPayments = activePlannedPayments(owner);
+        ForecastCurrency forecastCurrency = resolveCurrency(owner, plannedPayments);
+        CompletableFuture<Double> balanceLookup = balanceTrendService.getBalanceAtAsync(owner, now, forecastCurrency.currency());
+        FxConverter converter = forecastCurrency.needsConversion()
+                ? fxRateTable.converterTo(forecastCurrency.currency(), forecastCurrency.rateGeneration())
+                : null;
+
+        PriorityQueue<OccurrenceCursor> queue = new PriorityQueue<>(
+                Math.max(1, plannedPayments.size()), Comparator.comparingLong(OccurrenceCursor::current));
+        for (PlannedPayment plannedPayment : plannedPayments) {
+            CompiledRecurrence recurrence = compiledRecurrences.get(RecurrenceKey.of(plannedPayment), key -> compile(plannedPayment));
+            if (recurrence != null && recurrence.firstSecond() <= endSecond) {
+                // Future rates are unknown, so every occurrence is converted at today's
+                double amount = (converter == null)
+                        ? recurrence.amount()
+                        : converter.convert(recurrence.amount(), plannedPayment.getCurrency(), todayEpochDay);
+                queue.add(new OccurrenceCursor(recurrence, amount));
+            }
+        }
+
+        double currentBalance = Futures.join(balanceLookup);
+        double balance = currentBalance;
+        double lowestBalance = currentBalance;
+        long lowestEpochDay = todayEpochDay;
+
+        List<ForecastDataPoint> dataPoints = new ArrayList<>();
+        long day = Long.MIN_VALUE;
+        double outflow = 0;
+        int payments = 0;
+
+        while (!queue.isEmpty()) {
+            OccurrenceCursor cursor = queue.poll();
+
+            // Overdue occurrences are still owed, so they land on today
+            long occurrenceDay = Math.max(todayEpochDay, Math.floorDiv(cursor.current(), SECONDS_PER_DAY));
+            if (occurrenceDay != day && payments > 0) {
+                dataPoints.add(dataPoint(day, payments, outflow, balance));
+                outflow = 0;
+                payments = 0;
+            }
+            day = occurrenceDay;
+
+            double amount = cursor.amount();
+            balance -= amount;
+            outflow += amount;
+            payments++;
+            if (balance < lowestBalance) {
+                lowestBalance = balance;
+                lowestEpochDay = day;
+            }
+
+            if (cursor.advance() && cursor.current() <= endSecond) {
+                queue.add(cursor);
+            }
+        }
+        if (payments > 0) {
+            dataPoints.add(dataPoint(day, payments, outflow, balance));
+        }
+
+        return ForecastResponse.builder()
+                .from(now)
+                .to(to)
+                .currency(forecastCurrency.currency())
+                .currentBalance(currentBalance)
+                .projectedBalance(balance)
+                .lowestBalance(lowestBalance)
+                .lowestBalanceDate(Instant.ofEpochSecond(lowestEpochDay * SECONDS_PER_DAY))
+                .dataPoints(dataPoints)
+                .build();
+    }
+
+    private List<PlannedPayment> activePlannedPayments(String owner) {
+        return ownerWorkingSetCache.plannedPayments(owner).stream()
+                .filter(plannedPayment -> plannedPayment.getStatus() == PaymentStatus.ACTIVE)
+                .toList();
+    }
+
+    /**
+     * Payments without a currency count as the forecast's currency, as transactions without one do in trends
+     */
+    private ForecastCurrency resolveCurrency(String owner, List<PlannedPayment> plannedPayments) {
+        Set<String> held = new TreeSet<>(balanceTrendService.heldCurrencies(owner));
+        plannedPayments.stream()
+                .map(PlannedPayment::getCurrency)
+                .filter(Objects::nonNull)
+                .forEach(held::add);
+        String currency = (held.size() == 1) ? held.iterator().next() : fxRateTable.referenceCurrency();
+        List<String> foreign = held.stream()
+                .filter(heldCurrency -> !heldCurrency.equals(currency))
+                .toList();
+        return new ForecastCurrency(currency, foreign, foreign.isEmpty() ? 0 : fxRateTable.generation());
+    }
+
+    private ForecastDataPoint dataPoint(long epochDay, int payments, double outflow, double balance) {
+        return ForecastDataPoint.builder()
+                .date(Instant.ofEpochSecond(epochDay * SECONDS_PER_DAY))
+                .payments(payments)
+                .outflow(outflow)
+                .balance(balance)
+                .build();
+    }
+
+    private CompiledRecurrence compile(PlannedPayment plannedPayment) {
+        Instant nextDueDate = plannedPayment.getNextDueDate();
+        if (nextDueDate == null || plannedPayment.getRecurrenceType() == null) {
+            return null;
+        }
+
+        // Occurrences still to post; the first one is always posted while the payment is active
+        long remaining = Long.MAX_VALUE;
+        long endSecond = Long.MAX_VALUE;
+        if (plannedPayment.getEndType() == EndType.OCCURRENCE) {
+            int posted = plannedPayment.getOccurrenceCount() == null ? 0 : plannedPayment.getOccurrenceCount();
+            remaining = Math.max(1, Integer.parseInt(plannedPayment.getEndValue()) - posted);
+        } else if (plannedPayment.getEndType() == EndType.DATE) {
+            endSecond = DateTimeUtils.parseInstant(plannedPayment.getEndValue()).getEpochSecond();
+        }
+
+        LocalDate firstDate = DateTimeUtils.toUtcLocalDate(nextDueDate);
+        int target = (plannedPayment.getRecurrenceType() == RecurrenceType.WEEKLY)
+                ? DayOfWeek.valueOf(plannedPayment.getRecurrenceValue()).getValue()
+                : Integer.parseInt(plannedPayment.getRecurrenceValue());
+
+        return new CompiledRecurrence(
+                plannedPayment.getRecurrenceType(),
+                target,
+                nextDueDate.getEpochSecond(),
+                firstDate.getYear() * 12L + firstDate.getMonthValue() - 1,
+                remaining,
+                endSecond,
+                plannedPayment.getAmount());
+    }
+
+    /**
+     * @param currency          Currency the forecast is expressed in
+     * @param foreignCurrencies Other currencies of the owner's transactions and payments, which are converted
+     * @param rateGeneration    Rate generation the conversions use, 0 when there is none
+     */
+    private record ForecastCurrency(String currency, List<String> foreignCurrencies, long rateGeneration) {
+
+        boolean needsConversion() {
+            return !foreignCurrencies.isEmpty();
+        }
+    }
+
+    /**
+     * Schedule of one planned payment reduced to numbers.
+     * {@code target} is the ISO day of week for WEEKLY and the day of month for MONTHLY.
+     */
+    private record CompiledRecurrence(RecurrenceType type, int target, long firstSecond, long firstMonthIndex,
+                                      long occurrences, long endSecond, double amount) {
+    }
+
+    private record RecurrenceKey(String id, RecurrenceType recurrenceType, String recurrenceValue, EndType endType,
+                                 String endValue, Instant nextDueDate, Integer occurrenceCount, double amount) {
+
+        static RecurrenceKey of(PlannedPayment plannedPayment) {
+            return new RecurrenceKey(plannedPayment.getId(), plannedPayment.getRecurrenceType(),
+                    plannedPayment.getRecurrenceValue(), plannedPayment.getEndType(), plannedPayment.getEndValue(),
+                    plannedPayment.getNextDueDate(), plannedPayment.getOccurrenceCount(), plannedPayment.getAmount());
+        }
+    }
+
+    /**
+     * Walks one compiled recurrence; the only per-step state is a few longs.
+     */
+    private static final class OccurrenceCursor {
+        private final CompiledRecurrence recurrence;
+        private final double amount;  // In the forecast's currency
+        private long current;
+        private long monthIndex;
+        private long remaining;
+
+        private OccurrenceCursor(CompiledRecurrence recurrence, double amount) {
+            this.recurrence = recurrence;
+            this.amount = amount;
+            this.current = recurrence.firstSecond();
+            this.monthIndex = recurrence.firstMonthIndex();
+            this.remaining = recurrence.occurrences();
+        }
+
+        private double amount() {
+            return amount;
+        }
+
+        private long current() {
+            return current;
+        }
+
+        /**
+         * Move to the next occurrence
+         *
+         * @return false once the payment would have completed
+         */
+        private boolean advance() {
+            if (--remaining <= 0) {
+                return false;
+            }
+
+            long epochDay = Math.floorDiv(current, SECONDS_PER_DAY);
+            long nextEpochDay;
+            if (recurrence.type() == RecurrenceType.WEEKLY) {
+                // Same as TemporalAdjusters.next: strictly after the current day
+                int daysAhead = Math.floorMod(recurrence.target() - DateTimeUtils.isoDayOfWeek(epochDay), 7);
+                nextEpochDay = epochDay + (daysAhead == 0 ? 7 : daysAhead);
+            } else {
+                // Same as DateTimeUtils.nextMonthDay: target day clamped to the month length
+                monthIndex++;
+                long year = Math.floorDiv(monthIndex, 12);
+                int month = (int) Math.floorMod(monthIndex, 12) + 1;
+                int day = Math.min(recurrence.target(), Month.of(month).length(Year.isLeap(year)));
+                nextEpochDay = DateTimeUtils.epochDayOf(year, month, day);
+            }
+
+            current = nextEpochDay * SECONDS_PER_DAY;
+            return current <= recurrence.endSecond();
+        }
+    }
+}
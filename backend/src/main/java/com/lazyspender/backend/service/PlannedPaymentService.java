@@ -1,35 +1,75 @@
 package com.lazyspender.backend.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.lazyspender.backend.config.PlannedPaymentProperties;
+import com.lazyspender.backend.dto.OccurrenceCounterRepairResponse;
 import com.lazyspender.backend.dto.PlannedPaymentRequest;
 import com.lazyspender.backend.dto.PlannedPaymentResponse;
-import com.lazyspender.backend.dto.TransactionRequest;
 import com.lazyspender.backend.dto.TransactionResponse;
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
 import com.lazyspender.backend.mapper.PlannedPaymentMapper;
+import com.lazyspender.backend.mapper.TransactionMapper;
 import com.lazyspender.backend.model.ConfirmationType;
 import com.lazyspender.backend.model.PaymentStatus;
 import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
 import com.lazyspender.backend.repository.PlannedPaymentRepository;
 import com.lazyspender.backend.repository.TransactionRepository;
-import com.lazyspender.backend.util.DateTimeUtils;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PlannedPaymentService {
 
+    // Datastore allows at most 500 entities per commit, one of which is the planned payment
+    private static final int MAX_OCCURRENCES_PER_COMMIT = 499;
+
     private final PlannedPaymentRepository plannedPaymentRepository;
     private final PlannedPaymentMapper plannedPaymentMapper;
     private final TransactionRepository transactionRepository;
-    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
     private final RecurrenceCalculator recurrenceCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlannedPaymentProperties plannedPaymentProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final OwnerWorkingSetCache ownerWorkingSetCache;
+
+    public PlannedPaymentService(PlannedPaymentRepository plannedPaymentRepository,
+                                 PlannedPaymentMapper plannedPaymentMapper,
+                                 TransactionRepository transactionRepository,
+                                 TransactionMapper transactionMapper,
+                                 RecurrenceCalculator recurrenceCalculator,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlannedPaymentProperties plannedPaymentProperties,
+                                 PlatformTransactionManager transactionManager,
+                                 OwnerWorkingSetCache ownerWorkingSetCache) {
+        this.plannedPaymentRepository = plannedPaymentRepository;
+        this.plannedPaymentMapper = plannedPaymentMapper;
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.recurrenceCalculator = recurrenceCalculator;
+        this.eventPublisher = eventPublisher;
+        this.plannedPaymentProperties = plannedPaymentProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ownerWorkingSetCache = ownerWorkingSetCache;
+    }
 
     public PlannedPaymentResponse createPlannedPayment(PlannedPaymentRequest request) {
         PlannedPayment plannedPayment = plannedPaymentMapper.toEntity(request);
@@ -40,8 +80,11 @@ public class PlannedPaymentService {
         // Initialize status tracking fields
         plannedPayment.setStatus(PaymentStatus.ACTIVE);
         plannedPayment.setNextDueDate(request.getStartDate());
+        plannedPayment.setShard(shardOf(plannedPayment.getId()));
+        plannedPayment.setOccurrenceCount(0);
 
         PlannedPayment savedPlannedPayment = plannedPaymentRepository.save(plannedPayment);
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(savedPlannedPayment.getOwner()));
         return plannedPaymentMapper.toResponse(savedPlannedPayment);
     }
 
@@ -52,82 +95,265 @@ public class PlannedPaymentService {
     }
 
     public List<PlannedPaymentResponse> getAllPlannedPayments(String owner) {
-        List<PlannedPayment> plannedPayments = plannedPaymentRepository.findByOwner(owner);
+        List<PlannedPayment> plannedPayments = ownerWorkingSetCache.plannedPayments(owner);
         return plannedPayments.stream()
                 .map(plannedPaymentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     public List<PlannedPaymentResponse> getPlannedPaymentsByStatus(String owner, PaymentStatus status) {
-        List<PlannedPayment> plannedPayments = plannedPaymentRepository.findByOwnerAndStatus(owner, status);
+        // Filtered from the cached working set rather than queried, owners have few planned payments
+        List<PlannedPayment> plannedPayments = ownerWorkingSetCache.plannedPayments(owner);
         return plannedPayments.stream()
+                .filter(plannedPayment -> plannedPayment.getStatus() == status)
                 .map(plannedPaymentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     public PlannedPaymentResponse updatePlannedPayment(String id, PlannedPaymentRequest request) {
-        PlannedPayment plannedPayment = plannedPaymentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Planned payment not found with id: " + id));
+        // Read and write in one transaction so an edit never rolls back a concurrent confirmation's nextDueDate
+        PlannedPayment updatedPlannedPayment = transactionTemplate.execute(status -> {
+            PlannedPayment plannedPayment = plannedPaymentRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Planned payment not found with id: " + id));
 
-        plannedPaymentMapper.updateEntityFromRequest(request, plannedPayment);
-        PlannedPayment updatedPlannedPayment = plannedPaymentRepository.save(plannedPayment);
+            plannedPaymentMapper.updateEntityFromRequest(request, plannedPayment);
+            return plannedPaymentRepository.save(plannedPayment);
+        });
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(updatedPlannedPayment.getOwner()));
         return plannedPaymentMapper.toResponse(updatedPlannedPayment);
     }
 
     public void deletePlannedPayment(String id) {
-        if (!plannedPaymentRepository.existsById(id)) {
-            throw new RuntimeException("Planned payment not found with id: " + id);
-        }
+        // Loaded rather than checked for existence, the owner's data version needs bumping
+        PlannedPayment plannedPayment = plannedPaymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Planned payment not found with id: " + id));
         plannedPaymentRepository.deleteById(id);
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(plannedPayment.getOwner()));
     }
 
     public TransactionResponse confirmPlannedPayment(String plannedPaymentId) {
         PlannedPayment plannedPayment = plannedPaymentRepository.findById(plannedPaymentId)
                 .orElseThrow(() -> new RuntimeException("Planned payment not found with id: " + plannedPaymentId));
 
-        // Create transaction from planned payment data
-        TransactionRequest transactionRequest = TransactionRequest.builder()
+        // Manual confirmation posts exactly the next occurrence, even ahead of its due date
+        List<Transaction> posted = postOccurrences(plannedPayment, plannedPayment.getNextDueDate(), 1);
+        if (posted.isEmpty()) {
+            throw new RuntimeException("No occurrence to confirm for planned payment with id: " + plannedPaymentId);
+        }
+        return transactionMapper.toResponse(posted.get(0));
+    }
+
+    /**
+     * Find the due AUTO planned payments of the given shards.
+     * The holder of shard 0 also picks up payments created before sharding existed, and payments
+     * left on shards that no longer exist because the shard count was lowered.
+     *
+     * @param shards Shards leased by this instance
+     * @param now    Cut-off instant
+     * @return Planned payments whose next due date is at or before the cut-off
+     */
+    public List<PlannedPayment> findDueAutoConfirmPayments(Collection<Integer> shards, Instant now) {
+        List<PlannedPayment> due = new ArrayList<>();
+        for (int shard : shards) {
+            due.addAll(plannedPaymentRepository.findByShardAndStatusAndConfirmationTypeAndNextDueDateLessThanEqual(
+                    shard, PaymentStatus.ACTIVE, ConfirmationType.AUTO, now));
+        }
+        if (shards.contains(0)) {
+            plannedPaymentRepository.findByStatusAndConfirmationTypeAndNextDueDateLessThanEqual(
+                            PaymentStatus.ACTIVE, ConfirmationType.AUTO, now)
+                    .stream()
+                    .filter(plannedPayment -> !hasValidShard(plannedPayment))
+                    .forEach(due::add);
+        }
+        return due;
+    }
+
+    /**
+     * Post every occurrence of a planned payment that fell due up to the cut-off,
+     * so a payment left unprocessed for several periods is caught up in one pass.
+     *
+     * @param plannedPayment The planned payment as read by the caller
+     * @param now            Cut-off instant
+     * @param maxOccurrences Maximum number of occurrences to post in this call
+     * @return The generated transactions, empty if another instance got there first
+     */
+    public List<Transaction> catchUpPlannedPayment(PlannedPayment plannedPayment, Instant now, int maxOccurrences) {
+        return postOccurrences(plannedPayment, now, maxOccurrences);
+    }
+
+    /**
+     * Re-derive the stored occurrence counters from the posted transactions.
+     * Repairs payments created before the counters existed and drift from transactions deleted by hand.
+     *
+     * @param owner Only repair this owner's payments, or all payments when null
+     * @return Summary of the repair
+     */
+    public OccurrenceCounterRepairResponse repairOccurrenceCounters(String owner) {
+        Iterable<PlannedPayment> plannedPayments = owner == null
+                ? plannedPaymentRepository.findAll()
+                : plannedPaymentRepository.findByOwner(owner);
+
+        int scanned = 0;
+        int updated = 0;
+        int skipped = 0;
+        for (PlannedPayment snapshot : plannedPayments) {
+            scanned++;
+            List<Transaction> history = transactionRepository.findByPlannedPaymentId(snapshot.getId());
+            int occurrenceCount = history.size();
+            Instant lastConfirmedDate = history.stream()
+                    .map(Transaction::getDate)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+
+            if (Objects.equals(snapshot.getOccurrenceCount(), occurrenceCount)
+                    && Objects.equals(snapshot.getLastConfirmedDate(), lastConfirmedDate)) {
+                continue;
+            }
+
+            Boolean written;
+            try {
+                written = transactionTemplate.execute(status -> {
+                    PlannedPayment current = plannedPaymentRepository.findById(snapshot.getId()).orElse(null);
+                    // A confirmation since the history was read would make the derived values stale
+                    if (current == null || !Objects.equals(current.getNextDueDate(), snapshot.getNextDueDate())) {
+                        return false;
+                    }
+                    current.setOccurrenceCount(occurrenceCount);
+                    current.setLastConfirmedDate(lastConfirmedDate);
+                    plannedPaymentRepository.save(current);
+                    return true;
+                });
+            } catch (TransactionSystemException e) {
+                written = false;
+            }
+
+            if (Boolean.TRUE.equals(written)) {
+                eventPublisher.publishEvent(new OwnerDataChangedEvent(snapshot.getOwner()));
+                updated++;
+            } else {
+                skipped++;
+            }
+        }
+
+        return OccurrenceCounterRepairResponse.builder()
+                .paymentsScanned(scanned)
+                .paymentsUpdated(updated)
+                .paymentsSkipped(skipped)
+                .build();
+    }
+
+    private List<Transaction> postOccurrences(PlannedPayment snapshot, Instant cutOff, int maxOccurrences) {
+        // Payments created before the counter existed count their history once; the first commit stores it.
+        // Counted outside the transaction since Datastore only allows ancestor queries inside one.
+        int legacyCount = snapshot.getOccurrenceCount() == null
+                ? transactionRepository.findByPlannedPaymentId(snapshot.getId()).size()
+                : 0;
+
+        List<Transaction> posted = new ArrayList<>();
+        Instant expectedDueDate = snapshot.getNextDueDate();
+        while (posted.size() < maxOccurrences) {
+            int limit = Math.min(MAX_OCCURRENCES_PER_COMMIT, maxOccurrences - posted.size());
+            OccurrenceBatch batch;
+            try {
+                Instant expected = expectedDueDate;
+                batch = transactionTemplate.execute(status -> postOccurrenceBatch(snapshot.getId(), expected, legacyCount, cutOff, limit));
+            } catch (TransactionSystemException e) {
+                // Commit contention: a concurrent writer changed the payment, its commit wins
+                log.info("Concurrent update of planned payment {}, skipping", snapshot.getId(), e);
+                break;
+            }
+            if (batch == null || batch.transactions().isEmpty()) {
+                break;
+            }
+            posted.addAll(batch.transactions());
+            expectedDueDate = batch.plannedPayment().getNextDueDate();
+            if (!isDue(batch.plannedPayment(), cutOff)) {
+                break;
+            }
+        }
+
+        // Published after commit so listeners never see occurrences of a rolled back attempt
+        if (!posted.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsChangedEvent(List.of(), posted));
+        }
+        return posted;
+    }
+
+    private OccurrenceBatch postOccurrenceBatch(String plannedPaymentId, Instant expectedDueDate, int legacyCount,
+                                                Instant cutOff, int limit) {
+        PlannedPayment plannedPayment = plannedPaymentRepository.findById(plannedPaymentId).orElse(null);
+
+        // Optimistic version check: another instance or a manual confirmation already advanced it
+        if (plannedPayment == null || !Objects.equals(plannedPayment.getNextDueDate(), expectedDueDate)) {
+            return null;
+        }
+
+        int completedCount = plannedPayment.getOccurrenceCount() != null ? plannedPayment.getOccurrenceCount() : legacyCount;
+        List<Transaction> generated = new ArrayList<>();
+        while (generated.size() < limit && isDue(plannedPayment, cutOff)) {
+            Instant dueDate = plannedPayment.getNextDueDate();
+            generated.add(toTransaction(plannedPayment, dueDate));
+            completedCount++;
+
+            // Counter and last-confirmed date commit atomically with the transactions they describe
+            plannedPayment.setOccurrenceCount(completedCount);
+            plannedPayment.setLastConfirmedDate(dueDate);
+            advance(plannedPayment, completedCount);
+        }
+
+        if (!generated.isEmpty()) {
+            // Unsharded and out-of-range payments move to a live shard with their next posting
+            if (!hasValidShard(plannedPayment)) {
+                plannedPayment.setShard(shardOf(plannedPaymentId));
+            }
+            transactionRepository.saveAll(generated);
+            plannedPaymentRepository.save(plannedPayment);
+        }
+        return new OccurrenceBatch(plannedPayment, generated);
+    }
+
+    private boolean isDue(PlannedPayment plannedPayment, Instant cutOff) {
+        return plannedPayment.getStatus() == PaymentStatus.ACTIVE
+                && plannedPayment.getNextDueDate() != null
+                && !plannedPayment.getNextDueDate().isAfter(cutOff);
+    }
+
+    private boolean hasValidShard(PlannedPayment plannedPayment) {
+        Integer shard = plannedPayment.getShard();
+        return shard != null && shard >= 0 && shard < plannedPaymentProperties.getAutoConfirm().getShardCount();
+    }
+
+    private int shardOf(String plannedPaymentId) {
+        return Math.floorMod(plannedPaymentId.hashCode(), plannedPaymentProperties.getAutoConfirm().getShardCount());
+    }
+
+    private Transaction toTransaction(PlannedPayment plannedPayment, Instant dueDate) {
+        return Transaction.builder()
+                .id(Transaction.plannedOccurrenceIdOf(plannedPayment.getId(), dueDate))
                 .owner(plannedPayment.getOwner())
                 .account(plannedPayment.getAccount())
                 .category(plannedPayment.getCategory())
                 .amount(plannedPayment.getAmount())
                 .note(plannedPayment.getDescription())
-                .date(plannedPayment.getNextDueDate())
+                .date(dueDate)
                 .currency(plannedPayment.getCurrency())
                 .refCurrencyAmount(plannedPayment.getAmount())
-                .plannedPaymentId(plannedPaymentId)
+                .type(TransactionType.EXPENSE)
+                .plannedPaymentId(plannedPayment.getId())
                 .build();
+    }
 
-        TransactionResponse transaction = transactionService.createTransaction(transactionRequest);
-
+    private void advance(PlannedPayment plannedPayment, int completedCount) {
         // Calculate next due date
         Instant nextDueDate = recurrenceCalculator.calculateNextDueDate(plannedPayment, plannedPayment.getNextDueDate());
         plannedPayment.setNextDueDate(nextDueDate);
 
-        // Check if planned payment should be completed using COUNT aggregation
-        int completedCount = transactionRepository.countByPlannedPaymentId(plannedPaymentId);
         if (recurrenceCalculator.shouldComplete(plannedPayment, completedCount)) {
             plannedPayment.setStatus(PaymentStatus.COMPLETED);
         }
-
-        plannedPaymentRepository.save(plannedPayment);
-
-        return transaction;
     }
 
-    public List<TransactionResponse> autoConfirmDuePayments() {
-        Instant now = DateTimeUtils.nowUtc();
-
-        // Find all active planned payments with AUTO confirmation that are due
-        List<PlannedPayment> duePayments = plannedPaymentRepository
-                .findByStatusAndConfirmationTypeAndNextDueDateLessThanEqual(
-                        PaymentStatus.ACTIVE,
-                        ConfirmationType.AUTO,
-                        now
-                );
-
-        return duePayments.stream()
-                .map(payment -> confirmPlannedPayment(payment.getId()))
-                .collect(Collectors.toList());
+    private record OccurrenceBatch(PlannedPayment plannedPayment, List<Transaction> transactions) {
     }
 }
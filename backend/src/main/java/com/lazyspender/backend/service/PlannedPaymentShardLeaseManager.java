@@ -0,0 +1,167 @@
+package com.lazyspender.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lazyspender.backend.config.PlannedPaymentProperties;
+import com.lazyspender.backend.model.ProcessingLease;
+import com.lazyspender.backend.repository.ProcessingLeaseRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits auto-confirm shards between the running instances through leases stored in Datastore.
+ * Every instance heartbeats a membership lease, then holds at most its fair share of shards
+ * (shard count divided by live members, rounded up). Claims run in Datastore transactions,
+ * so two instances racing for the same shard cannot both win.
+ */
+@Slf4j
+@Component
+public class PlannedPaymentShardLeaseManager {
+
+    private static final String MEMBER_GROUP = "planned-payment-member";
+    private static final String SHARD_GROUP = "planned-payment-shard";
+
+    private final ProcessingLeaseRepository processingLeaseRepository;
+    private final PlannedPaymentProperties plannedPaymentProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlannedPaymentShardLeaseManager(ProcessingLeaseRepository processingLeaseRepository,
+                                           PlannedPaymentProperties plannedPaymentProperties,
+                                           PlatformTransactionManager transactionManager) {
+        this.processingLeaseRepository = processingLeaseRepository;
+        this.plannedPaymentProperties = plannedPaymentProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Renew the shards this instance holds and claim free ones up to its fair share
+     *
+     * @return Shards this instance may process until the leases expire
+     */
+    public Set<Integer> acquireShards() {
+        PlannedPaymentProperties.AutoConfirm settings = plannedPaymentProperties.getAutoConfirm();
+        String instanceId = settings.getInstanceId();
+        int shardCount = settings.getShardCount();
+        Instant now = DateTimeUtils.nowUtc();
+        Instant expiresAt = now.plus(settings.getLeaseTtl());
+
+        // Membership heartbeat so every instance knows how many peers share the shards
+        processingLeaseRepository.save(lease(MEMBER_GROUP, instanceId, instanceId, expiresAt));
+        int liveMembers = Math.max(1, processingLeaseRepository
+                .findByLeaseGroupAndExpiresAtGreaterThan(MEMBER_GROUP, now).size());
+        int fairShare = Math.ceilDiv(shardCount, liveMembers);
+
+        List<String> shardIds = IntStream.range(0, shardCount)
+                .mapToObj(shard -> ProcessingLease.idOf(SHARD_GROUP, Integer.toString(shard)))
+                .toList();
+        Map<String, ProcessingLease> leases = StreamSupport
+                .stream(processingLeaseRepository.findAllById(shardIds).spliterator(), false)
+                .collect(Collectors.toMap(ProcessingLease::getId, Function.identity()));
+
+        Set<Integer> held = new TreeSet<>();
+        Set<Integer> free = new TreeSet<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            ProcessingLease lease = leases.get(shardIds.get(shard));
+            if (lease == null || !lease.getExpiresAt().isAfter(now)) {
+                free.add(shard);
+            } else if (instanceId.equals(lease.getHolder())) {
+                held.add(shard);
+            }
+        }
+
+        // Keep what we already hold first so assignments stay stable between runs
+        Set<Integer> owned = new TreeSet<>();
+        List<Integer> surplus = new ArrayList<>();
+        for (int shard : held) {
+            if (owned.size() < fairShare && tryClaim(shard, instanceId, now, expiresAt)) {
+                owned.add(shard);
+            } else {
+                surplus.add(shard);
+            }
+        }
+
+        // Start at an instance-specific offset so peers do not all race for the same free shards
+        int offset = Math.floorMod(instanceId.hashCode(), shardCount);
+        for (int i = 0; i < shardCount && owned.size() < fairShare; i++) {
+            int shard = (offset + i) % shardCount;
+            if (free.contains(shard) && tryClaim(shard, instanceId, now, expiresAt)) {
+                owned.add(shard);
+            }
+        }
+
+        // Hand back shards above the fair share so newly started instances pick them up
+        surplus.forEach(shard -> release(shard, instanceId));
+
+        log.debug("Instance {} holds shards {} of {} ({} live members)", instanceId, owned, shardCount, liveMembers);
+        return owned;
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        String instanceId = plannedPaymentProperties.getAutoConfirm().getInstanceId();
+        try {
+            IntStream.range(0, plannedPaymentProperties.getAutoConfirm().getShardCount())
+                    .forEach(shard -> release(shard, instanceId));
+            processingLeaseRepository.deleteById(ProcessingLease.idOf(MEMBER_GROUP, instanceId));
+        } catch (RuntimeException e) {
+            // Leases expire on their own; releasing early only speeds up the hand-over
+            log.warn("Failed to release planned payment leases for instance {}", instanceId, e);
+        }
+    }
+
+    private boolean tryClaim(int shard, String instanceId, Instant now, Instant expiresAt) {
+        String name = Integer.toString(shard);
+        try {
+            Boolean claimed = transactionTemplate.execute(status -> {
+                ProcessingLease current = processingLeaseRepository
+                        .findById(ProcessingLease.idOf(SHARD_GROUP, name))
+                        .orElse(null);
+                if (current != null && !instanceId.equals(current.getHolder()) && current.getExpiresAt().isAfter(now)) {
+                    return false;
+                }
+                processingLeaseRepository.save(lease(SHARD_GROUP, name, instanceId, expiresAt));
+                return true;
+            });
+            return Boolean.TRUE.equals(claimed);
+        } catch (RuntimeException e) {
+            // Commit contention means another instance claimed the shard first
+            log.debug("Lost claim on shard {}", shard, e);
+            return false;
+        }
+    }
+
+    private void release(int shard, String instanceId) {
+        String id = ProcessingLease.idOf(SHARD_GROUP, Integer.toString(shard));
+        try {
+            transactionTemplate.executeWithoutResult(status -> processingLeaseRepository.findById(id)
+                    .filter(lease -> instanceId.equals(lease.getHolder()))
+                    .ifPresent(lease -> processingLeaseRepository.deleteById(id)));
+        } catch (RuntimeException e) {
+            log.debug("Failed to release shard {}", shard, e);
+        }
+    }
+
+    private ProcessingLease lease(String leaseGroup, String name, String holder, Instant expiresAt) {
+        return ProcessingLease.builder()
+                .id(ProcessingLease.idOf(leaseGroup, name))
+                .leaseGroup(leaseGroup)
+                .holder(holder)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.lazyspender.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.lazyspender.backend.dto.TransactionBatchItemResult;
+import com.lazyspender.backend.dto.TransactionBatchOperation;
+import com.lazyspender.backend.dto.TransactionBatchRequest;
+import com.lazyspender.backend.dto.TransactionBatchResponse;
+import com.lazyspender.backend.dto.TransactionRequest;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.model.BatchOperationType;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.TransactionRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executes mixed create/update/delete operations with multi-entity Datastore calls.
+ * Each chunk costs one lookup, one batch put and one batch delete regardless of its size.
+ * Operations on the same id within a chunk are applied in request order.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+    // Datastore allows at most 500 entities per lookup, commit and delete
+    private static final int CHUNK_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionIngestQueue transactionIngestQueue;
+
+    public TransactionBatchResponse execute(TransactionBatchRequest request) {
+        List<TransactionBatchOperation> operations = request.getOperations();
+        TransactionBatchItemResult[] results = new TransactionBatchItemResult[operations.size()];
+
+        for (int start = 0; start < operations.size(); start += CHUNK_SIZE) {
+            executeChunk(operations, start, Math.min(start + CHUNK_SIZE, operations.size()), results);
+        }
+
+        int failed = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() >= 400)
+                .count();
+
+        return TransactionBatchResponse.builder()
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void executeChunk(List<TransactionBatchOperation> operations, int from, int to, TransactionBatchItemResult[] results) {
+        // Validate first and load everything the updates and deletes refer to in a single lookup
+        Set<String> existingIds = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            TransactionBatchOperation operation = operations.get(i);
+            String error = validate(operation);
+            if (error != null) {
+                results[i] = failure(i, operation, operation == null ? null : operation.getId(), HttpStatus.BAD_REQUEST, error);
+            } else if (operation.getType() != BatchOperationType.CREATE) {
+                existingIds.add(operation.getId());
+            }
+        }
+
+        // Creates acknowledged early must be written before they can be found, updated or deleted
+        existingIds.forEach(transactionIngestQueue::awaitFlushedById);
+
+        Map<String, Transaction> originals = existingIds.isEmpty()
+                ? Map.of()
+                : StreamSupport.stream(transactionRepository.findAllById(existingIds).spliterator(), false)
+                        .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        Map<String, Transaction> current = new HashMap<>(originals);
+        Map<String, Transaction> saves = new LinkedHashMap<>();
+        Set<String> deletes = new LinkedHashSet<>();
+        Map<String, List<Integer>> operationsById = new HashMap<>();
+
+        for (int i = from; i < to; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            TransactionBatchOperation operation = operations.get(i);
+
+            String id = operation.getId();
+            switch (operation.getType()) {
+                case CREATE -> {
+                    Transaction created = transactionMapper.toEntity(operation.getTransaction());
+                    id = UUID.randomUUID().toString();
+                    created.setId(id);
+                    saves.put(id, created);
+                    results[i] = success(i, operation, id, HttpStatus.CREATED, created);
+                }
+                case UPDATE -> {
+                    Transaction existing = current.get(id);
+                    if (existing == null) {
+                        results[i] = failure(i, operation, id, HttpStatus.NOT_FOUND, "Transaction not found with id: " + id);
+                        continue;
+                    }
+                    Transaction updated = existing.toBuilder().build();
+                    transactionMapper.updateEntityFromRequest(operation.getTransaction(), updated);
+                    current.put(id, updated);
+                    saves.put(id, updated);
+                    results[i] = success(i, operation, id, HttpStatus.OK, updated);
+                }
+                case DELETE -> {
+                    if (current.remove(id) == null) {
+                        results[i] = failure(i, operation, id, HttpStatus.NOT_FOUND, "Transaction not found with id: " + id);
+                        continue;
+                    }
+                    saves.remove(id);
+                    deletes.add(id);
+                    results[i] = success(i, operation, id, HttpStatus.NO_CONTENT, null);
+                }
+            }
+            operationsById.computeIfAbsent(id, key -> new ArrayList<>()).add(i);
+        }
+
+        if (!saves.isEmpty()) {
+            try {
+                transactionRepository.saveAll(saves.values());
+            } catch (RuntimeException e) {
+                markFailed(saves.keySet(), operationsById, operations, results, e);
+                saves.clear();
+            }
+        }
+        if (!deletes.isEmpty()) {
+            try {
+                transactionRepository.deleteAllById(deletes);
+            } catch (RuntimeException e) {
+                markFailed(deletes, operationsById, operations, results, e);
+                deletes.clear();
+            }
+        }
+
+        // Publish only the net effect of the chunk: original states out, final states in
+        List<Transaction> removed = Stream.concat(saves.keySet().stream(), deletes.stream())
+                .map(originals::get)
+                .filter(Objects::nonNull)
+                .toList();
+        List<Transaction> added = List.copyOf(saves.values());
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsChangedEvent(removed, added));
+        }
+    }
+
+    private String validate(TransactionBatchOperation operation) {
+        if (operation == null) {
+            return "Operation is required";
+        }
+        if (operation.getType() == null) {
+            return "Operation type is required";
+        }
+        if (operation.getType() != BatchOperationType.CREATE && (operation.getId() == null || operation.getId().isBlank())) {
+            return "Id is required for " + operation.getType();
+        }
+        if (operation.getType() == BatchOperationType.DELETE) {
+            return null;
+        }
+        if (operation.getTransaction() == null) {
+            return "Transaction is required for " + operation.getType();
+        }
+
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(operation.getTransaction());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void markFailed(Set<String> ids, Map<String, List<Integer>> operationsById,
+                            List<TransactionBatchOperation> operations, TransactionBatchItemResult[] results, RuntimeException e) {
+        String message = "Failed to write batch: " + e.getMessage();
+        for (String id : ids) {
+            for (int index : operationsById.getOrDefault(id, List.of())) {
+                results[index] = failure(index, operations.get(index), id, HttpStatus.INTERNAL_SERVER_ERROR, message);
+            }
+        }
+    }
+
+    private TransactionBatchItemResult success(int index, TransactionBatchOperation operation, String id, HttpStatus status, Transaction transaction) {
+        return TransactionBatchItemResult.builder()
+                .index(index)
+                .type(operation.getType())
+                .id(id)
+                .status(status.value())
+                .transaction(transaction == null ? null : transactionMapper.toResponse(transaction))
+                .build();
+    }
+
+    private TransactionBatchItemResult failure(int index, TransactionBatchOperation operation, String id, HttpStatus status, String error) {
+        return TransactionBatchItemResult.builder()
+                .index(index)
+                .type(operation == null ? null : operation.getType())
+                .id(id)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.lazyspender.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lazyspender.backend.dto.TransactionResponse;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.model.ExportFormat;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DatastoreCursors;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVWriter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams an owner's transactions straight from Datastore query batches into the response.
+ * Only one batch is held in memory at a time; the next batch resumes from the previous cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String[] CSV_HEADER = {
+            "id", "date", "account", "category", "amount", "type", "currency", "refCurrencyAmount", "note", "plannedPaymentId"
+    };
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write every transaction of an owner in the date range to the output stream
+     *
+     * @param owner  The owner
+     * @param from   Inclusive start date
+     * @param to     Inclusive end date
+     * @param format Output format
+     * @param output Target stream, flushed after every batch
+     * @throws IOException if the client disconnects or the stream fails
+     */
+    public void export(String owner, Instant from, Instant to, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        RowWriter rowWriter = switch (format) {
+            case CSV -> csvRowWriter(writer);
+            case NDJSON -> ndjsonRowWriter(writer);
+        };
+
+        String cursor = null;
+        do {
+            Pageable pageable = DatastoreCursors.resume(BATCH_SIZE, Sort.unsorted(), cursor);
+            Slice<Transaction> batch = transactionRepository.findSliceByOwnerAndDateBetweenOrderByDateAsc(owner, from, to, pageable);
+            for (Transaction transaction : batch) {
+                rowWriter.write(transactionMapper.toResponse(transaction));
+            }
+            rowWriter.flush();
+            cursor = DatastoreCursors.nextCursor(batch);
+        } while (cursor != null);
+    }
+
+    private RowWriter csvRowWriter(Writer writer) {
+        ICSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(CSV_HEADER, false);
+        return new RowWriter() {
+            @Override
+            public void write(TransactionResponse transaction) {
+                csvWriter.writeNext(toCsvRow(transaction), false);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                csvWriter.flush();
+                // CSVWriter records IO errors instead of throwing, so surface a client disconnect explicitly
+                if (csvWriter.checkError()) {
+                    throw new IOException("Failed to write CSV batch");
+                }
+            }
+        };
+    }
+
+    private String[] toCsvRow(TransactionResponse transaction) {
+        return new String[] {
+                transaction.getId(),
+                transaction.getDate() == null ? "" : transaction.getDate().toString(),
+                transaction.getAccount(),
+                transaction.getCategory(),
+                Double.toString(transaction.getAmount()),
+                transaction.getType() == null ? "" : transaction.getType().name(),
+                transaction.getCurrency(),
+                Double.toString(transaction.getRefCurrencyAmount()),
+                transaction.getNote(),
+                transaction.getPlannedPaymentId()
+        };
+    }
+
+    private RowWriter ndjsonRowWriter(Writer writer) {
+        ObjectWriter jsonWriter = objectMapper.writerFor(TransactionResponse.class);
+        return new RowWriter() {
+            @Override
+            public void write(TransactionResponse transaction) throws IOException {
+                writer.write(jsonWriter.writeValueAsString(transaction));
+                writer.write('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private interface RowWriter {
+        void write(TransactionResponse transaction) throws IOException;
+
+        void flush() throws IOException;
+    }
+}
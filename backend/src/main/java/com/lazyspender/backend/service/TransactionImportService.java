@@ -0,0 +1,284 @@
+package com.lazyspender.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.lazyspender.backend.config.TransactionImportProperties;
+import com.lazyspender.backend.dto.TransactionImportError;
+import com.lazyspender.backend.dto.TransactionImportResponse;
+import com.lazyspender.backend.dto.TransactionRequest;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams a CSV upload into Datastore without holding the file in memory.
+ * Rows are parsed one at a time and written in chunked batch puts, with at most
+ * {@code maxInFlight} chunks being written while the next ones are parsed.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService virtualThreadExecutor;
+    private final TransactionImportProperties transactionImportProperties;
+
+    /**
+     * Import transactions from a CSV stream with a header row.
+     * Recognised columns: account, category, amount, note, date, currency, refCurrencyAmount, type.
+     *
+     * @param owner Owner assigned to every imported transaction
+     * @param input The raw CSV body
+     * @return Import summary with per-row errors
+     */
+    public TransactionImportResponse importCsv(String owner, InputStream input) throws IOException {
+        long startedAt = System.nanoTime();
+        ImportState state = new ImportState(transactionImportProperties.getMaxReportedErrors());
+        Deque<PendingChunk> inFlight = new ArrayDeque<>();
+
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader)) {
+
+            Map<String, Integer> columns = readHeader(csvReader);
+            List<Transaction> chunk = new ArrayList<>(transactionImportProperties.getChunkSize());
+            List<Long> chunkRows = new ArrayList<>(transactionImportProperties.getChunkSize());
+
+            String[] row;
+            while ((row = readRow(csvReader, state)) != null) {
+                long rowNumber = csvReader.getLinesRead();
+                state.rowsRead++;
+
+                Transaction transaction = parseRow(owner, columns, row, rowNumber, state);
+                if (transaction == null) {
+                    continue;
+                }
+                chunk.add(transaction);
+                chunkRows.add(rowNumber);
+
+                if (chunk.size() == transactionImportProperties.getChunkSize()) {
+                    submit(inFlight, chunk, chunkRows, state);
+                    chunk = new ArrayList<>(transactionImportProperties.getChunkSize());
+                    chunkRows = new ArrayList<>(transactionImportProperties.getChunkSize());
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                submit(inFlight, chunk, chunkRows, state);
+            }
+        } finally {
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.removeFirst(), state);
+            }
+        }
+
+        return TransactionImportResponse.builder()
+                .rowsRead(state.rowsRead)
+                .imported(state.imported)
+                .failed(state.failed)
+                .errors(state.errors)
+                .errorsTruncated(state.errorsTruncated)
+                .durationMillis((System.nanoTime() - startedAt) / 1_000_000)
+                .build();
+    }
+
+    private Map<String, Integer> readHeader(CSVReader csvReader) throws IOException {
+        String[] header;
+        try {
+            header = csvReader.readNext();
+        } catch (CsvValidationException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage(), e);
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private String[] readRow(CSVReader csvReader, ImportState state) throws IOException {
+        while (true) {
+            try {
+                return csvReader.readNext();
+            } catch (CsvValidationException e) {
+                state.rowsRead++;
+                state.reject(csvReader.getLinesRead(), "Malformed CSV row: " + e.getMessage());
+            }
+        }
+    }
+
+    private Transaction parseRow(String owner, Map<String, Integer> columns, String[] row, long rowNumber, ImportState state) {
+        TransactionRequest request;
+        try {
+            request = TransactionRequest.builder()
+                    .owner(owner)
+                    .account(column(columns, row, "account"))
+                    .category(column(columns, row, "category"))
+                    .amount(parseAmount(column(columns, row, "amount")))
+                    .note(column(columns, row, "note"))
+                    .date(parseDate(column(columns, row, "date")))
+                    .currency(column(columns, row, "currency"))
+                    .refCurrencyAmount(parseDouble(column(columns, row, "refcurrencyamount")))
+                    .type(parseType(column(columns, row, "type")))
+                    .build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            state.reject(rowNumber, e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            state.reject(rowNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+
+        Transaction transaction = transactionMapper.toEntity(request);
+        transaction.setId(UUID.randomUUID().toString());
+        return transaction;
+    }
+
+    private void submit(Deque<PendingChunk> inFlight, List<Transaction> chunk, List<Long> chunkRows, ImportState state) {
+        // Backpressure: parsing waits for the oldest write once the in-flight limit is reached
+        if (inFlight.size() >= transactionImportProperties.getMaxInFlight()) {
+            complete(inFlight.removeFirst(), state);
+        }
+        Future<?> write = virtualThreadExecutor.submit(() -> transactionRepository.saveAll(chunk));
+        inFlight.addLast(new PendingChunk(chunk, chunkRows, write));
+    }
+
+    private void complete(PendingChunk pending, ImportState state) {
+        try {
+            pending.write().get();
+            state.imported += pending.transactions().size();
+            // Published from the importing thread so derived data is updated one chunk at a time
+            eventPublisher.publishEvent(new TransactionsChangedEvent(List.of(), pending.transactions()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.rows().forEach(row -> state.reject(row, "Import interrupted"));
+        } catch (ExecutionException e) {
+            String message = "Failed to save batch: " + e.getCause().getMessage();
+            pending.rows().forEach(row -> state.reject(row, message));
+        }
+    }
+
+    private String column(Map<String, Integer> columns, String[] row, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.length) {
+            return null;
+        }
+        String value = row[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private double parseAmount(String value) {
+        // The request's amount is a primitive, so a missing one would otherwise pass validation as 0
+        if (value == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        return parseDouble(value);
+    }
+
+    private double parseDouble(String value) {
+        if (value == null) {
+            return 0;
+        }
+        double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+        if (!Double.isFinite(number)) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+        return number;
+    }
+
+    private Instant parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        // Bank statements usually only carry the calendar date
+        if (value.length() == 10) {
+            return DateTimeUtils.toInstantStartOfDay(LocalDate.parse(value));
+        }
+        return DateTimeUtils.parseInstant(value);
+    }
+
+    private TransactionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return TransactionType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid transaction type: " + value);
+        }
+    }
+
+    private record PendingChunk(List<Transaction> transactions, List<Long> rows, Future<?> write) {
+    }
+
+    private static final class ImportState {
+        private final int maxReportedErrors;
+        private final List<TransactionImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private boolean errorsTruncated;
+
+        private ImportState(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(TransactionImportError.builder().row(row).message(message).build());
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.lazyspender.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.lazyspender.backend.config.TransactionIngestProperties;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.TransactionRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind queue for transaction creations that the client asked to be acknowledged early.
+ * Accepted transactions are coalesced into batch puts by a single flusher, written once a batch is
+ * full or the oldest transaction has waited {@code flushInterval}. A full queue makes submitters wait
+ * and then turns them away; failed puts are retried with jittered backoff.
+ * On shutdown the queue stops accepting and is written out before the web server stops, so requests
+ * arriving meanwhile are written synchronously. The queue lives only in memory: transactions still
+ * queued when the drain times out, or whose batch keeps failing, are lost. Each is logged in full at
+ * ERROR and counted as {@code lost} or {@code dropped}, so they can be found and re-entered.
+ * Reads of an owner wait for that owner's queued transactions, so a client sees its own writes
+ * when its requests reach the same instance.
+ */
+@Slf4j
+@Component
+public class TransactionIngestQueue implements SmartLifecycle, MeterBinder {
+
+    // Stops before the web server's graceful shutdown (DEFAULT_PHASE - 1024), so the drain fits in the
+    // instance's termination grace period instead of following the in-flight requests
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE;
+
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionIngestProperties properties;
+    private final BlockingQueue<Transaction> queue;
+
+    // Accepted but not yet written or given up on. Changed under the lock so waiting readers can be signalled
+    private final Map<String, Transaction> pendingById = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingByOwner = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    private final AtomicInteger offering = new AtomicInteger();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    private volatile boolean accepting;
+    private Thread flusher;
+
+    public TransactionIngestQueue(TransactionRepository transactionRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionIngestProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lazyspender.ingest.queued", queue, BlockingQueue::size)
+                .description("Accepted transactions waiting to be written")
+                .register(registry);
+        outcomeCounter(registry, "written", written);
+        outcomeCounter(registry, "rejected", rejected);
+        outcomeCounter(registry, "dropped", dropped);
+        outcomeCounter(registry, "lost", lost);
+    }
+
+    private static void outcomeCounter(MeterRegistry registry, String outcome, LongAdder count) {
+        FunctionCounter.builder("lazyspender.ingest.transactions", count, LongAdder::sum)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * @return True while enabled and not shutting down; otherwise creations should be written synchronously
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Queue a new transaction to be written in the background, waiting up to {@code offerTimeout} for room
+     *
+     * @param transaction Validated transaction with its id assigned
+     * @return True if accepted, false if the queue stayed full or is shutting down
+     */
+    public boolean offer(Transaction transaction) {
+        offering.incrementAndGet();
+        try {
+            if (!accepting) {
+                rejected.increment();
+                return false;
+            }
+            track(transaction);
+            boolean queued;
+            try {
+                queued = queue.offer(transaction, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                untrack(List.of(transaction));
+                rejected.increment();
+            }
+            return queued;
+        } finally {
+            offering.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait until every queued transaction of an owner has been written, or the read-your-writes timeout passes
+     *
+     * @param owner The owner about to be read
+     */
+    public void awaitFlushed(String owner) {
+        if (owner == null || !pendingByOwner.containsKey(owner)) {
+            return;
+        }
+        long remaining = properties.getReadYourWritesTimeout().toNanos();
+        lock.lock();
+        try {
+            while (pendingByOwner.containsKey(owner)) {
+                if (remaining <= 0) {
+                    log.debug("Reading owner {} with transactions still queued", owner);
+                    return;
+                }
+                remaining = flushed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a transaction is written if it is still queued
+     *
+     * @param id The transaction id about to be read
+     */
+    public void awaitFlushedById(String id) {
+        Transaction pending = pendingById.get(id);
+        if (pending != null) {
+            awaitFlushed(pending.getOwner());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        accepting = true;
+        flusher = Thread.ofVirtual().name("transaction-ingest-flusher").start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        accepting = false;
+        try {
+            if (!flusher.join(properties.getDrainTimeout())) {
+                flusher.interrupt();
+                List<Transaction> remaining = new ArrayList<>();
+                queue.drainTo(remaining);
+                lost.add(remaining.size());
+                log.error("Transaction ingest drain timed out, {} queued transactions are lost", remaining.size());
+                remaining.forEach(transaction -> log.error("Lost queued transaction {}", transaction));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushLoop() {
+        List<Transaction> batch = new ArrayList<>(properties.getBatchSize());
+        // After stop() keep going until submitters that got past the check are done and the queue is empty
+        while (accepting || offering.get() > 0 || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Only interrupted once the drain has timed out
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(List.copyOf(batch));
+                batch.clear();
+            }
+        }
+        log.info("Transaction ingest queue drained");
+    }
+
+    private void collect(List<Transaction> batch) throws InterruptedException {
+        long flushInterval = properties.getFlushInterval().toNanos();
+        Transaction first = queue.poll(flushInterval, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval;
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            // While draining, whatever is queued goes out right away
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !accepting) {
+                return;
+            }
+            Transaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Transaction> transactions) {
+        try {
+            if (!saveWithRetries(transactions)) {
+                dropped.add(transactions.size());
+                log.error("Dropped {} queued transactions after {} failed attempts", transactions.size(), properties.getMaxAttempts());
+                transactions.forEach(transaction -> log.error("Dropped queued transaction {}", transaction));
+                return;
+            }
+            written.add(transactions.size());
+            try {
+                // Published before the owners are released so their next read also sees derived data
+                eventPublisher.publishEvent(new TransactionsChangedEvent(List.of(), transactions));
+            } catch (RuntimeException e) {
+                log.error("Listener failed for {} written transactions", transactions.size(), e);
+            }
+        } finally {
+            untrack(transactions);
+        }
+    }
+
+    private boolean saveWithRetries(List<Transaction> transactions) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Ids are assigned up front, so a retried put overwrites rather than duplicates
+                transactionRepository.saveAll(transactions);
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.warn("Batch put of {} transactions failed, giving up", transactions.size(), e);
+                    return false;
+                }
+                Duration backoff = backoff(attempt);
+                log.warn("Batch put of {} transactions failed on attempt {}, retrying in {} ms",
+                        transactions.size(), attempt, backoff.toMillis(), e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        // Full jitter: a random wait up to the exponential cap, so retrying instances don't line up
+        long initial = properties.getInitialBackoff().toMillis();
+        long cap = Math.min(properties.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    private void track(Transaction transaction) {
+        lock.lock();
+        try {
+            pendingById.put(transaction.getId(), transaction);
+            pendingByOwner.merge(transaction.getOwner(), 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void untrack(List<Transaction> transactions) {
+        lock.lock();
+        try {
+            for (Transaction transaction : transactions) {
+                pendingById.remove(transaction.getId());
+                pendingByOwner.computeIfPresent(transaction.getOwner(), (owner, count) -> count > 1 ? count - 1 : null);
+            }
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
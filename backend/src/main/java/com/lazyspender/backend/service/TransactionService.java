@@ -3,17 +3,21 @@ package com.lazyspender.backend.service;
 import com.lazyspender.backend.dto.PageResponse;
 import com.lazyspender.backend.dto.TransactionRequest;
 import com.lazyspender.backend.dto.TransactionResponse;
+import com.lazyspender.backend.event.TransactionsChangedEvent;
 import com.lazyspender.backend.mapper.TransactionMapper;
 import com.lazyspender.backend.model.Transaction;
 import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DatastoreCursors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,65 +27,104 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionIngestQueue transactionIngestQueue;
 
     public TransactionResponse createTransaction(TransactionRequest request) {
         Transaction transaction = transactionMapper.toEntity(request);
         transaction.setId(UUID.randomUUID().toString());
         Transaction savedTransaction = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.created(savedTransaction));
         return transactionMapper.toResponse(savedTransaction);
     }
 
+    /**
+     * Accept a new transaction into the write-behind queue instead of writing it right away
+     *
+     * @param request The validated request
+     * @return The transaction as it will be stored, or empty if the queue has no room
+     */
+    public Optional<TransactionResponse> enqueueTransaction(TransactionRequest request) {
+        Transaction transaction = transactionMapper.toEntity(request);
+        transaction.setId(UUID.randomUUID().toString());
+        if (!transactionIngestQueue.offer(transaction)) {
+            return Optional.empty();
+        }
+        return Optional.of(transactionMapper.toResponse(transaction));
+    }
+
     public TransactionResponse getTransactionById(String id) {
+        transactionIngestQueue.awaitFlushedById(id);
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
         return transactionMapper.toResponse(transaction);
     }
 
-    public PageResponse<TransactionResponse> getAllTransactions(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
-        Page<Transaction> transactionPage = transactionRepository.findAll(pageable);
-        return mapToPageResponse(transactionPage);
+    public PageResponse<TransactionResponse> getAllTransactions(int page, int size, String cursor) {
+        Pageable pageable = toPageable(page, size, cursor, Sort.unsorted());
+        Slice<Transaction> transactionSlice = transactionRepository.findAllOrderByDateDesc(pageable);
+        return mapToPageResponse(transactionSlice, page, cursor);
     }
 
-    public PageResponse<TransactionResponse> getTransactionsByOwner(String owner, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"));
-        Page<Transaction> transactionPage = transactionRepository.findByOwner(owner, pageable);
-        return mapToPageResponse(transactionPage);
+    public PageResponse<TransactionResponse> getTransactionsByOwner(String owner, int page, int size, String cursor) {
+        transactionIngestQueue.awaitFlushed(owner);
+        Pageable pageable = toPageable(page, size, cursor, Sort.by(Sort.Direction.DESC, "date"));
+        Slice<Transaction> transactionSlice = transactionRepository.findByOwner(owner, pageable);
+        return mapToPageResponse(transactionSlice, page, cursor);
     }
 
     public TransactionResponse updateTransaction(String id, TransactionRequest request) {
+        // A create acknowledged early may still be queued; updating before it is written would miss it
+        transactionIngestQueue.awaitFlushedById(id);
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+        Transaction previousTransaction = transaction.toBuilder().build();
 
         transactionMapper.updateEntityFromRequest(request, transaction);
         Transaction updatedTransaction = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.updated(previousTransaction, updatedTransaction));
         return transactionMapper.toResponse(updatedTransaction);
     }
 
     public void deleteTransaction(String id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new RuntimeException("Transaction not found with id: " + id);
-        }
-        transactionRepository.deleteById(id);
+        // Otherwise a delete landing before the queued create is written would be undone by the flusher
+        transactionIngestQueue.awaitFlushedById(id);
+        // Load the entity rather than checking existence so listeners know what was removed
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+        transactionRepository.delete(transaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.deleted(transaction));
     }
 
     public List<String> getDistinctNotesByOwner(String owner) {
+        transactionIngestQueue.awaitFlushed(owner);
         return transactionRepository.findDistinctNotesByOwner(owner);
     }
 
-    private PageResponse<TransactionResponse> mapToPageResponse(Page<Transaction> transactionPage) {
-        List<TransactionResponse> content = transactionPage.getContent().stream()
+    /**
+     * A cursor resumes the query where the previous page ended, so deep pages cost the same as the first.
+     * Without one, the page number falls back to an offset for older clients.
+     */
+    private Pageable toPageable(int page, int size, String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return PageRequest.of(page, size, sort);
+        }
+        return DatastoreCursors.resume(size, sort, cursor);
+    }
+
+    private PageResponse<TransactionResponse> mapToPageResponse(Slice<Transaction> transactionSlice, int page, String cursor) {
+        List<TransactionResponse> content = transactionSlice.getContent().stream()
                 .map(transactionMapper::toResponse)
                 .collect(Collectors.toList());
 
+        // Slices skip the count query, so no totals are reported
         return PageResponse.<TransactionResponse>builder()
                 .content(content)
-                .pageNumber(transactionPage.getNumber())
-                .pageSize(transactionPage.getSize())
-                .totalElements(transactionPage.getTotalElements())
-                .totalPages(transactionPage.getTotalPages())
-                .hasNext(transactionPage.hasNext())
-                .hasPrevious(transactionPage.hasPrevious())
+                .pageNumber(page)
+                .pageSize(transactionSlice.getSize())
+                .hasNext(transactionSlice.hasNext())
+                .hasPrevious(page > 0 || (cursor != null && !cursor.isBlank()))
+                .nextCursor(DatastoreCursors.nextCursor(transactionSlice))
                 .build();
     }
 }
@@ -2,13 +2,16 @@ package com.lazyspender.backend.service;
 
 import com.lazyspender.backend.dto.UserRequest;
 import com.lazyspender.backend.dto.UserResponse;
+import com.lazyspender.backend.event.OwnerDataChangedEvent;
 import com.lazyspender.backend.mapper.UserMapper;
 import com.lazyspender.backend.model.User;
 import com.lazyspender.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.StreamSupport;
 
@@ -17,11 +20,14 @@ import java.util.stream.StreamSupport;
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final OwnerWorkingSetCache ownerWorkingSetCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserResponse create(UserRequest request) {
         User user = userMapper.toEntity(request);
         user.setId(UUID.randomUUID().toString());
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(savedUser.getOwner()));
         return userMapper.toResponse(savedUser);
     }
 
@@ -32,7 +38,7 @@ public class UserService {
     }
 
     public UserResponse getByOwner(String owner) {
-        User user = userRepository.findByOwner(owner)
+        User user = ownerWorkingSetCache.user(owner)
                 .orElseThrow(() -> new RuntimeException("User not found with owner: " + owner));
         return userMapper.toResponse(user);
     }
@@ -47,15 +53,20 @@ public class UserService {
     public UserResponse update(String id, UserRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        String previousOwner = user.getOwner();
         userMapper.updateEntityFromRequest(request, user);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(previousOwner));
+        if (!Objects.equals(previousOwner, updatedUser.getOwner())) {
+            eventPublisher.publishEvent(new OwnerDataChangedEvent(updatedUser.getOwner()));
+        }
         return userMapper.toResponse(updatedUser);
     }
 
     public void delete(String id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new OwnerDataChangedEvent(user.getOwner()));
     }
 }
@@ -0,0 +1,48 @@
+package com.lazyspender.backend.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.google.cloud.spring.data.datastore.repository.query.DatastorePageable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helpers for resuming Datastore queries from URL-safe query cursors instead of offsets.
+ * A cursor continues exactly where the previous batch ended, so later batches cost the same as the first.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatastoreCursors {
+
+    /**
+     * Build a pageable that resumes from a cursor, or starts from the first entity
+     *
+     * @param size   Batch size
+     * @param sort   Sort order, must match the one the cursor was produced with
+     * @param cursor URL-safe cursor from {@link #nextCursor(Slice)}, or null to start over
+     * @return Pageable understood by Datastore repository queries
+     */
+    public static Pageable resume(int size, Sort sort, String cursor) {
+        Pageable first = PageRequest.of(0, size, sort);
+        if (cursor == null || cursor.isBlank()) {
+            return first;
+        }
+        return DatastorePageable.from(first, cursor, null);
+    }
+
+    /**
+     * Get the cursor positioned after the last entity of a slice
+     *
+     * @param slice Slice returned by a Datastore repository query
+     * @return URL-safe cursor, or null if there is nothing after this slice
+     */
+    public static String nextCursor(Slice<?> slice) {
+        if (slice.hasNext() && slice.getPageable() instanceof DatastorePageable datastorePageable) {
+            return datastorePageable.getUrlCursor();
+        }
+        return null;
+    }
+}
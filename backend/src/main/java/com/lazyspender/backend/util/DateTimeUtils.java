@@ -22,6 +22,9 @@ public final class DateTimeUtils {
 
     private static final ZoneId UTC = ZoneId.of("UTC");
 
+    // Latest whole second a Datastore timestamp can hold
+    private static final Instant MAX_DATASTORE_INSTANT = Instant.parse("9999-12-31T23:59:59Z");
+
     /**
      * Get the current instant in UTC
      * 
@@ -79,6 +82,27 @@ public final class DateTimeUtils {
         return LocalDate.now(UTC).atTime(LocalTime.MAX).atZone(UTC).toInstant();
     }
 
+    /**
+     * Get the start of the ISO week (Monday) containing the given instant in UTC
+     *
+     * @param instant The instant to truncate
+     * @return Instant at start of that week's Monday in UTC
+     */
+    public static Instant startOfWeekUtc(Instant instant) {
+        LocalDate monday = toUtcLocalDate(instant).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return toInstantStartOfDay(monday);
+    }
+
+    /**
+     * Get the start of the month containing the given instant in UTC
+     *
+     * @param instant The instant to truncate
+     * @return Instant at start of the first day of that month in UTC
+     */
+    public static Instant startOfMonthUtc(Instant instant) {
+        return toInstantStartOfDay(toUtcLocalDate(instant).withDayOfMonth(1));
+    }
+
     /**
      * Calculate the next occurrence of a specific day of week in UTC
      * 
@@ -112,6 +136,46 @@ public final class DateTimeUtils {
         return toInstantStartOfDay(nextDate);
     }
 
+    /**
+     * Get the epoch day of a calendar date without allocating date objects,
+     * for tight loops that step through many dates
+     *
+     * @param year       Proleptic year
+     * @param month      Month of year (1-12)
+     * @param dayOfMonth Day of month (1-31), not validated
+     * @return Days since 1970-01-01
+     */
+    public static long epochDayOf(long year, int month, int dayOfMonth) {
+        // Civil-to-days conversion over 400-year eras, with years starting in March
+        long y = (month <= 2) ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    /**
+     * Get the UTC epoch day of an instant without allocating date objects
+     *
+     * @param instant The instant
+     * @return Days since 1970-01-01, negative before it
+     */
+    public static long utcEpochDay(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 86_400);
+    }
+
+    /**
+     * Get the day of week of an epoch day without allocating date objects
+     *
+     * @param epochDay Days since 1970-01-01
+     * @return ISO day of week value, Monday = 1 through Sunday = 7
+     */
+    public static int isoDayOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday
+        return (int) Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
     /**
      * Parse ISO-8601 date string to Instant
      * 
@@ -122,6 +186,15 @@ public final class DateTimeUtils {
         return Instant.parse(dateString);
     }
 
+    /**
+     * Get the latest instant Datastore can store, for open-ended range queries
+     *
+     * @return 9999-12-31T23:59:59Z
+     */
+    public static Instant maxDatastoreInstant() {
+        return MAX_DATASTORE_INSTANT;
+    }
+
     /**
      * Get ZoneId for UTC
      * 
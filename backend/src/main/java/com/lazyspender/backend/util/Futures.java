@@ -0,0 +1,32 @@
+package com.lazyspender.backend.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helpers for waiting on the async repository facades from request code.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Futures {
+
+    /**
+     * Wait for a future and rethrow its failure unwrapped, so callers see the
+     * same exception the synchronous repository call would have thrown
+     *
+     * @param future The future to wait for
+     * @return The completed value
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.lazyspender.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time of one HTTP request went and how much Datastore work it did.
+ * Bound to the request thread, and carried over to the virtual threads that run its
+ * async repository calls, so the counters are safe to update from several threads.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder datastoreNanos = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder entities = new LongAdder();
+    private final LongAdder mappingNanos = new LongAdder();
+    private final AtomicLong serializationStartNanos = new AtomicLong();
+
+    private RequestProfile() {
+    }
+
+    /**
+     * Start profiling the request running on the current thread
+     *
+     * @return The new profile, until {@link #clear()} is called
+     */
+    public static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Get the profile of the request running on the current thread
+     *
+     * @return The profile, or null outside of a profiled request
+     */
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop profiling on the current thread
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wrap a task so it records into the profile of the thread that submitted it
+     *
+     * @param task Task to run on another thread
+     * @return Task that installs the submitter's profile while it runs
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) {
+            return task;
+        }
+        return () -> {
+            RequestProfile previous = CURRENT.get();
+            CURRENT.set(profile);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void recordQuery(long nanos, long entityCount) {
+        datastoreNanos.add(nanos);
+        queries.increment();
+        entities.add(Math.max(0, entityCount));
+    }
+
+    public void recordMapping(long nanos) {
+        mappingNanos.add(nanos);
+    }
+
+    /**
+     * Mark the moment the handler returned and the response body started being written
+     */
+    public void markSerializationStart() {
+        serializationStartNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Summed across concurrent queries, so it can exceed the request's wall time
+     */
+    public long datastoreNanos() {
+        return datastoreNanos.sum();
+    }
+
+    public long queries() {
+        return queries.sum();
+    }
+
+    public long entities() {
+        return entities.sum();
+    }
+
+    public long mappingNanos() {
+        return mappingNanos.sum();
+    }
+
+    /**
+     * @return When the body started being written, or 0 if the response has no body
+     */
+    public long serializationStartNanos() {
+        return serializationStartNanos.get();
+    }
+}
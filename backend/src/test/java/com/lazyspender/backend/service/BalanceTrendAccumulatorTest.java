@@ -0,0 +1,193 @@
+package com.lazyspender.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.lazyspender.backend.dto.BalanceTrendDataPoint;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.model.TrendPeriod;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+/**
+ * Checks the epoch-millis accumulator against the ZonedDateTime walk it replaced, on seeded random
+ * transactions over several accounts with rows before the start, on bucket boundaries and on the same instant.
+ */
+class BalanceTrendAccumulatorTest {
+
+    private static final List<String> ACCOUNTS = List.of("Cash", "Checking", "Savings");
+    private static final Instant FIRST = Instant.parse("2023-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-06-15T23:59:59.999Z");
+
+    @Test
+    void matchesThePreviousAlgorithmForEveryPeriod() {
+        List<Transaction> transactions = fixture(new Random(17));
+
+        for (TrendPeriod period : TrendPeriod.values()) {
+            Instant startDate = switch (period) {
+                case FROM_START -> FIRST;
+                case LAST_YEAR -> END.minus(365, ChronoUnit.DAYS);
+                case LAST_12_WEEKS -> END.minus(12 * 7, ChronoUnit.DAYS);
+            };
+
+            assertEquivalent(transactions, period, startDate, 0);
+            for (String account : ACCOUNTS) {
+                List<Transaction> accountTransactions = transactions.stream()
+                        .filter(tx -> tx.getAccount().equals(account))
+                        .toList();
+                assertEquivalent(accountTransactions, period, startDate, 250.75);
+            }
+        }
+    }
+
+    private static void assertEquivalent(List<Transaction> transactions, TrendPeriod period, Instant startDate,
+                                         double openingBalance) {
+        ReferenceAccumulator reference = new ReferenceAccumulator(period, startDate, END, openingBalance);
+        BalanceTrendAccumulator accumulator = new BalanceTrendAccumulator(period, startDate, END, openingBalance);
+        BalanceTrendAccumulator byCurrency = new BalanceTrendAccumulator(period, startDate, END, Map.of("PHP", openingBalance), null);
+        for (Transaction tx : transactions) {
+            reference.add(tx);
+            accumulator.add(tx);
+            byCurrency.add(tx);
+        }
+
+        List<BalanceTrendDataPoint> expected = reference.finish();
+        assertThat(expected).hasSizeGreaterThan(1);
+        assertThat(accumulator.finish()).as("%s from %s", period, startDate).isEqualTo(expected);
+        assertThat(byCurrency.finish()).as("%s from %s by currency", period, startDate).isEqualTo(expected);
+    }
+
+    private static List<Transaction> fixture(Random random) {
+        List<Transaction> transactions = new ArrayList<>();
+        long span = END.toEpochMilli() - FIRST.toEpochMilli();
+        for (int i = 0; i < 3000; i++) {
+            transactions.add(transaction(random, FIRST.plusMillis((long) (random.nextDouble() * span))));
+        }
+
+        // Rows exactly on month and week boundaries, several sharing one instant
+        ZonedDateTime month = DateTimeUtils.toUtcZonedDateTime(FIRST);
+        while (month.toInstant().isBefore(END)) {
+            transactions.add(transaction(random, month.toInstant()));
+            transactions.add(transaction(random, month.toInstant()));
+            month = month.plusMonths(1);
+        }
+        ZonedDateTime week = DateTimeUtils.toUtcZonedDateTime(FIRST).with(DayOfWeek.MONDAY);
+        while (week.toInstant().isBefore(END)) {
+            transactions.add(transaction(random, week.toInstant()));
+            week = week.plusWeeks(1);
+        }
+
+        // Weeks without any activity leave gaps the accumulators must skip over
+        transactions.removeIf(tx -> tx.getDate().isAfter(Instant.parse("2025-02-01T00:00:00Z"))
+                && tx.getDate().isBefore(Instant.parse("2025-03-15T00:00:00Z")));
+
+        transactions.sort(Comparator.comparing(Transaction::getDate));
+        return transactions;
+    }
+
+    private static Transaction transaction(Random random, Instant date) {
+        return Transaction.builder()
+                .owner("owner")
+                .account(ACCOUNTS.get(random.nextInt(ACCOUNTS.size())))
+                .category("Category")
+                .amount(Math.round(random.nextDouble() * 100_000) / 100.0)
+                .date(date)
+                .currency("PHP")
+                .type(random.nextInt(3) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                .build();
+    }
+
+    /**
+     * The accumulator as it was before bucket boundaries were precomputed: a ZonedDateTime cursor
+     * advanced period by period, emitting each data point as its period closes.
+     */
+    private static final class ReferenceAccumulator {
+
+        private final TrendPeriod period;
+        private final Instant startDate;
+        private final ZonedDateTime initialPeriodStart;
+        private final ZonedDateTime endDateTime;
+        private final List<BalanceTrendDataPoint> dataPoints = new ArrayList<>();
+
+        private ZonedDateTime currentPeriodStart;
+        private Instant periodEnd;
+        private double cumulativeBalance;
+        private double periodIncome;
+        private double periodExpense;
+
+        ReferenceAccumulator(TrendPeriod period, Instant startDate, Instant endDate, double openingBalance) {
+            this.period = period;
+            this.startDate = startDate;
+            this.initialPeriodStart = BalanceTrendAccumulator.initialPeriodStart(startDate, period);
+            this.endDateTime = DateTimeUtils.toUtcZonedDateTime(endDate);
+            this.currentPeriodStart = initialPeriodStart;
+            this.periodEnd = BalanceTrendAccumulator.nextPeriodStart(initialPeriodStart, period).toInstant();
+            this.cumulativeBalance = openingBalance;
+        }
+
+        void add(Transaction tx) {
+            if (tx.getDate().isBefore(startDate)) {
+                if (tx.getType() == TransactionType.INCOME) {
+                    cumulativeBalance += tx.getAmount();
+                } else if (tx.getType() == TransactionType.EXPENSE) {
+                    cumulativeBalance -= tx.getAmount();
+                }
+                return;
+            }
+
+            while (!tx.getDate().isBefore(periodEnd) && currentPeriodStart.isBefore(endDateTime)) {
+                closePeriod();
+            }
+            if (!currentPeriodStart.isBefore(endDateTime)) {
+                return;
+            }
+
+            if (tx.getType() == TransactionType.INCOME) {
+                cumulativeBalance += tx.getAmount();
+                periodIncome += tx.getAmount();
+            } else {
+                cumulativeBalance -= tx.getAmount();
+                periodExpense += tx.getAmount();
+            }
+        }
+
+        List<BalanceTrendDataPoint> finish() {
+            while (currentPeriodStart.isBefore(endDateTime)) {
+                closePeriod();
+            }
+            return dataPoints;
+        }
+
+        private void closePeriod() {
+            ZonedDateTime nextPeriodStart = BalanceTrendAccumulator.nextPeriodStart(currentPeriodStart, period);
+            if (periodIncome > 0 || periodExpense > 0
+                    || currentPeriodStart.equals(initialPeriodStart)
+                    || !nextPeriodStart.isBefore(endDateTime)) {
+                Instant periodStart = currentPeriodStart.toInstant();
+                dataPoints.add(BalanceTrendDataPoint.builder()
+                        .label(BalanceTrendAccumulator.formatDate(periodStart, period))
+                        .timestamp(periodStart)
+                        .balance(cumulativeBalance)
+                        .income(periodIncome)
+                        .expense(periodExpense)
+                        .build());
+            }
+
+            periodIncome = 0;
+            periodExpense = 0;
+            currentPeriodStart = nextPeriodStart;
+            periodEnd = BalanceTrendAccumulator.nextPeriodStart(nextPeriodStart, period).toInstant();
+        }
+    }
+}
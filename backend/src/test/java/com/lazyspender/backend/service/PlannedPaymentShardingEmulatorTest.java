@@ -0,0 +1,156 @@
+package com.lazyspender.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.lazyspender.backend.BackendApplication;
+import com.lazyspender.backend.dto.AutoConfirmRunResponse;
+import com.lazyspender.backend.dto.PlannedPaymentRequest;
+import com.lazyspender.backend.dto.PlannedPaymentResponse;
+import com.lazyspender.backend.model.ConfirmationType;
+import com.lazyspender.backend.model.EndType;
+import com.lazyspender.backend.model.PlannedPayment;
+import com.lazyspender.backend.model.RecurrenceType;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.PlannedPaymentRepository;
+import com.lazyspender.backend.repository.TransactionRepository;
+import com.lazyspender.backend.util.DateTimeUtils;
+
+/**
+ * Runs several application instances against the Datastore emulator and checks that
+ * concurrent auto-confirm runs post every due occurrence exactly once.
+ * Start the emulator with {@code gcloud beta emulators datastore start --consistency=1.0}
+ * so the due-payment queries see every write, and export DATASTORE_EMULATOR_HOST before running.
+ */
+@EnabledIfEnvironmentVariable(named = "DATASTORE_EMULATOR_HOST", matches = ".+")
+class PlannedPaymentShardingEmulatorTest {
+
+    private static final int INSTANCES = 3;
+    private static final int PAYMENTS = 40;
+
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    @BeforeEach
+    void startInstances() {
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new SpringApplicationBuilder(BackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.cloud.gcp.datastore.host=" + System.getenv("DATASTORE_EMULATOR_HOST"),
+                            "spring.cloud.gcp.datastore.project-id=lazyspender-test",
+                            "lazyspender.planned-payments.auto-confirm.enabled=false",
+                            "lazyspender.planned-payments.auto-confirm.instance-id=instance-" + i + "-" + UUID.randomUUID())
+                    .run());
+        }
+    }
+
+    @AfterEach
+    void stopInstances() {
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void concurrentInstancesPostEachOccurrenceOnce() {
+        PlannedPaymentService plannedPaymentService = instances.get(0).getBean(PlannedPaymentService.class);
+        String owner = "sharding-" + UUID.randomUUID();
+        Instant startDate = Instant.now().minus(21, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        List<String> ids = IntStream.range(0, PAYMENTS)
+                .mapToObj(i -> plannedPaymentService.createPlannedPayment(PlannedPaymentRequest.builder()
+                        .owner(owner)
+                        .account("Checking")
+                        .category("Rent")
+                        .amount(10)
+                        .description("Payment " + i)
+                        .currency("PHP")
+                        .startDate(startDate)
+                        .recurrenceType(RecurrenceType.WEEKLY)
+                        .recurrenceValue(DateTimeUtils.toUtcZonedDateTime(startDate).getDayOfWeek().name())
+                        .endType(EndType.NEVER)
+                        .confirmationType(ConfirmationType.AUTO)
+                        .build()))
+                .map(PlannedPaymentResponse::getId)
+                .toList();
+
+        // Two rounds in which every instance's run is released by the same barrier, on threads of its own,
+        // so the runs overlap and leases and version checks both get exercised
+        List<CompletableFuture<Optional<AutoConfirmRunResponse>>> runs = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(INSTANCES)) {
+            for (int round = 0; round < 2; round++) {
+                CyclicBarrier start = new CyclicBarrier(INSTANCES);
+                List<CompletableFuture<Optional<AutoConfirmRunResponse>>> roundRuns = new ArrayList<>();
+                for (ConfigurableApplicationContext instance : instances) {
+                    PlannedPaymentAutoConfirmEngine engine = instance.getBean(PlannedPaymentAutoConfirmEngine.class);
+                    roundRuns.add(CompletableFuture.supplyAsync(() -> {
+                        awaitQuietly(start);
+                        return engine.run();
+                    }, executor));
+                }
+                roundRuns.forEach(CompletableFuture::join);
+                runs.addAll(roundRuns);
+            }
+        }
+
+        PlannedPaymentRepository plannedPaymentRepository = instances.get(0).getBean(PlannedPaymentRepository.class);
+        TransactionRepository transactionRepository = instances.get(0).getBean(TransactionRepository.class);
+        RecurrenceCalculator recurrenceCalculator = instances.get(0).getBean(RecurrenceCalculator.class);
+
+        int expectedTotal = 0;
+        for (String id : ids) {
+            PlannedPayment plannedPayment = plannedPaymentRepository.findById(id).orElseThrow();
+            assertThat(plannedPayment.getNextDueDate()).isAfter(Instant.now().minus(7, ChronoUnit.DAYS));
+
+            // Lookups by key are strongly consistent, unlike queries against the emulator
+            List<String> expectedIds = new ArrayList<>();
+            for (Instant due = startDate; due.isBefore(plannedPayment.getNextDueDate());
+                 due = recurrenceCalculator.calculateNextDueDate(plannedPayment, due)) {
+                expectedIds.add(Transaction.plannedOccurrenceIdOf(id, due));
+            }
+            long stored = StreamSupport.stream(transactionRepository.findAllById(expectedIds).spliterator(), false).count();
+            assertThat(stored).isEqualTo(expectedIds.size());
+            expectedTotal += expectedIds.size();
+        }
+
+        // A double posting would overwrite the same id but still be counted by the run that made it
+        int postedTotal = runs.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Optional::stream)
+                .mapToInt(AutoConfirmRunResponse::getTransactionsPosted)
+                .sum();
+        assertThat(postedTotal).isEqualTo(expectedTotal);
+    }
+
+    private static void awaitQuietly(CyclicBarrier barrier) {
+        try {
+            barrier.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the other instances", e);
+        } catch (BrokenBarrierException | TimeoutException e) {
+            throw new IllegalStateException("Instances did not start their runs together", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.lazyspender.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.lazyspender.backend.dto.TransactionBatchItemResult;
+import com.lazyspender.backend.dto.TransactionBatchOperation;
+import com.lazyspender.backend.dto.TransactionBatchRequest;
+import com.lazyspender.backend.dto.TransactionBatchResponse;
+import com.lazyspender.backend.dto.TransactionRequest;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.model.BatchOperationType;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.model.TransactionType;
+import com.lazyspender.backend.repository.TransactionRepository;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+class TransactionBatchServiceTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private final TransactionBatchService transactionBatchService = new TransactionBatchService(
+            transactionRepository,
+            Mappers.getMapper(TransactionMapper.class),
+            validatorFactory.getValidator(),
+            mock(ApplicationEventPublisher.class),
+            mock(TransactionIngestQueue.class));
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidItemsFailOnTheirOwnWhileTheRestAreWritten() {
+        Transaction existing = Transaction.builder()
+                .id("existing")
+                .owner("owner")
+                .account("Cash")
+                .category("Food")
+                .amount(5)
+                .date(Instant.parse("2024-03-01T00:00:00Z"))
+                .type(TransactionType.EXPENSE)
+                .build();
+        when(transactionRepository.findAllById(any())).thenReturn(List.of(existing));
+
+        TransactionRequest blankAccount = request(7);
+        blankAccount.setAccount(" ");
+
+        TransactionBatchRequest request = TransactionBatchRequest.builder()
+                .operations(Arrays.asList(
+                        create(request(10)),
+                        create(blankAccount),
+                        TransactionBatchOperation.builder().type(BatchOperationType.UPDATE).id("existing").transaction(request(20)).build(),
+                        TransactionBatchOperation.builder().type(BatchOperationType.DELETE).build(),
+                        null))
+                .build();
+
+        TransactionBatchResponse response = transactionBatchService.execute(request);
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults())
+                .extracting(TransactionBatchItemResult::getIndex, TransactionBatchItemResult::getStatus, TransactionBatchItemResult::getError)
+                .containsExactly(
+                        tuple(0, 201, null),
+                        tuple(1, 400, "Account is required"),
+                        tuple(2, 200, null),
+                        tuple(3, 400, "Id is required for DELETE"),
+                        tuple(4, 400, "Operation is required"));
+
+        ArgumentCaptor<Iterable<Transaction>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(Transaction::getAmount)
+                .containsExactly(10.0, 20.0);
+    }
+
+    private static TransactionBatchOperation create(TransactionRequest transaction) {
+        return TransactionBatchOperation.builder()
+                .type(BatchOperationType.CREATE)
+                .transaction(transaction)
+                .build();
+    }
+
+    private static TransactionRequest request(double amount) {
+        return TransactionRequest.builder()
+                .owner("owner")
+                .account("Cash")
+                .category("Food")
+                .amount(amount)
+                .date(Instant.parse("2024-03-02T00:00:00Z"))
+                .type(TransactionType.EXPENSE)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.lazyspender.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.lazyspender.backend.config.TransactionImportProperties;
+import com.lazyspender.backend.dto.TransactionImportError;
+import com.lazyspender.backend.dto.TransactionImportResponse;
+import com.lazyspender.backend.mapper.TransactionMapper;
+import com.lazyspender.backend.model.Transaction;
+import com.lazyspender.backend.repository.TransactionRepository;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+class TransactionImportServiceTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private ExecutorService executor;
+    private TransactionImportService transactionImportService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        transactionImportService = new TransactionImportService(
+                transactionRepository,
+                Mappers.getMapper(TransactionMapper.class),
+                validatorFactory.getValidator(),
+                mock(ApplicationEventPublisher.class),
+                executor,
+                new TransactionImportProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        validatorFactory.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rowsWithoutAValidAmountAreRejected() throws Exception {
+        String csv = """
+                account,category,amount,date,type
+                Cash,Food,12.50,2024-03-01,EXPENSE
+                Cash,Food,,2024-03-02,EXPENSE
+                Cash,Food,abc,2024-03-03,EXPENSE
+                Cash,Food,NaN,2024-03-04,EXPENSE
+                Cash,Salary,1000,2024-03-05,INCOME
+                """;
+
+        TransactionImportResponse response = transactionImportService.importCsv("owner",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getRowsRead()).isEqualTo(5);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getErrors())
+                .extracting(TransactionImportError::getRow, TransactionImportError::getMessage)
+                .containsExactly(
+                        tuple(3L, "Amount is required"),
+                        tuple(4L, "Invalid number: abc"),
+                        tuple(5L, "Invalid number: NaN"));
+
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(Transaction::getAmount)
+                .containsExactly(12.5, 1000.0);
+    }
+}
@@ -11,7 +11,7 @@ import { Button, Chip, Divider, IconButton, SegmentedButtons, Surface, Text, Tex
 import { TimePickerModal } from 'react-native-paper-dates';
 import { shadows, spacing } from '../config/theme';
 import { useUser } from '../contexts/UserContext';
-import { useCreateTransaction, useDistinctNotes, useUpdateTransaction } from '../hooks/useTransactions';
+import { useCreateTransaction, useNoteSuggestions, useUpdateTransaction } from '../hooks/useTransactions';
 import { CreateTransactionRequest } from '../services/transaction.service';
 import { Category } from '../types/category';
 import { TransactionType } from '../types/transaction';
@@ -30,7 +30,6 @@ const TransactionFormModal: React.FC<TransactionFormModalProps> = ({ visible, on
   const theme = useTheme();
   const { mutate: createTransaction, isPending: isCreating } = useCreateTransaction();
   const { mutate: updateTransaction, isPending: isUpdating } = useUpdateTransaction();
-  const { data: distinctNotes } = useDistinctNotes(user!.owner);
 
   const isPending = isCreating || isUpdating;
   const isEditMode = !!initialData?.id;
@@ -44,6 +43,7 @@ const TransactionFormModal: React.FC<TransactionFormModalProps> = ({ visible, on
   };
 
   const [formData, setFormData] = useState<Partial<CreateTransactionRequest>>(getInitialFormData());
+  const { data: noteSuggestions } = useNoteSuggestions(user!.owner, formData.note ?? '');
   const [categorySelectorVisible, setCategorySelectorVisible] = useState(false);
   const [datePickerVisible, setDatePickerVisible] = useState(false);
   const [timePickerVisible, setTimePickerVisible] = useState(false);
@@ -321,7 +321,7 @@ const TransactionFormModal: React.FC<TransactionFormModalProps> = ({ visible, on
                       onChangeText={(text) => setFormData({ ...formData, note: text })}
                       placeholder="Add a note"
                       disabled={isPending}
-                      suggestions={distinctNotes?.filter(text => text && text.length > 0)}
+                      suggestions={noteSuggestions}
                     />
                   </View>
                 </ScrollView>
@@ -1,4 +1,4 @@
-import axios from 'axios';
+import axios, { type InternalAxiosRequestConfig } from 'axios';
 import Constants from 'expo-constants';
 
 // API base URL - configured via app.config.js and .env file
@@ -11,6 +11,47 @@ export const apiClient = axios.create({
     'Content-Type': 'application/json',
   },
   timeout: 10000, // 10 seconds
+  // 304 Not Modified is answered from the ETag cache below
+  validateStatus: (status) => (status >= 200 && status < 300) || status === 304,
+});
+
+// Last ETag and body per GET URL, so unchanged data is revalidated instead of re-downloaded
+const MAX_ETAG_ENTRIES = 100;
+const etagCache = new Map<string, { etag: string; data: unknown }>();
+
+const cacheKey = (config: InternalAxiosRequestConfig) => apiClient.getUri(config);
+
+apiClient.interceptors.request.use((config) => {
+  if (config.method === 'get') {
+    const cached = etagCache.get(cacheKey(config));
+    if (cached) {
+      config.headers.set('If-None-Match', cached.etag);
+    }
+  }
+  return config;
+});
+
+apiClient.interceptors.response.use((response) => {
+  if (response.config.method !== 'get') {
+    return response;
+  }
+  const key = cacheKey(response.config);
+  if (response.status === 304) {
+    const cached = etagCache.get(key);
+    if (cached) {
+      response.data = cached.data;
+    }
+    return response;
+  }
+  const etag = response.headers['etag'];
+  if (etag) {
+    etagCache.delete(key);
+    etagCache.set(key, { etag, data: response.data });
+    if (etagCache.size > MAX_ETAG_ENTRIES) {
+      etagCache.delete(etagCache.keys().next().value as string);
+    }
+  }
+  return response;
 });
 
 // Request interceptor for adding auth tokens (if needed in future)
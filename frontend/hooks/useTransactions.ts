@@ -1,6 +1,6 @@
 import { PageResponse } from '@/types/api';
-import { QueryClient, useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
-import { createTransaction, CreateTransactionRequest, deleteTransaction, getAllTransactions, getDistinctNotes, GetTransactionsParams, updateTransaction } from '../services/transaction.service';
+import { keepPreviousData, QueryClient, useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
+import { createTransaction, CreateTransactionRequest, deleteTransaction, getAllTransactions, getDistinctNotes, GetTransactionsParams, suggestNotes, updateTransaction } from '../services/transaction.service';
 import { Transaction } from '../types/transaction';
 import { BALANCE_TREND_QUERY_KEYS } from './useBalanceTrend';
 
@@ -20,9 +20,9 @@ export const useTransactions = (options: UseTransactionsOptions = {}) => {
 
   return useInfiniteQuery({
     queryKey: TRANSACTION_QUERY_KEYS.list({ size: pageSize }),
-    queryFn: ({ pageParam }) => getAllTransactions({ page: pageParam as number, size: pageSize }),
-    initialPageParam: 0,
-    getNextPageParam: (lastPage: PageResponse<Transaction>) => lastPage.hasNext ? lastPage.pageNumber + 1 : null,
+    queryFn: ({ pageParam }) => getAllTransactions({ cursor: pageParam ?? undefined, size: pageSize }),
+    initialPageParam: null as string | null,
+    getNextPageParam: (lastPage: PageResponse<Transaction>) => lastPage.hasNext ? lastPage.nextCursor : null,
     enabled
   });
 };
@@ -33,7 +33,7 @@ export const useCreateTransaction = () => {
   return useMutation({
     mutationFn: (request: CreateTransactionRequest) => createTransaction(request),
     onSuccess: (newTransaction) => {
-      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: number[] }>(
+      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: (string | null)[] }>(
         { queryKey: TRANSACTION_QUERY_KEYS.lists() },
         (oldData) => {
           if (!oldData) return oldData;
@@ -43,7 +43,6 @@ export const useCreateTransaction = () => {
             newPages[0] = {
               ...newPages[0],
               content: [newTransaction, ...newPages[0].content],
-              totalElements: newPages[0].totalElements + 1,
             };
           }
 
@@ -64,7 +63,7 @@ export const useUpdateTransaction = () => {
   return useMutation({
     mutationFn: ({ id, request }: { id: string; request: CreateTransactionRequest }) => updateTransaction(id, request),
     onSuccess: (updatedTransaction) => {
-      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: number[] }>(
+      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: (string | null)[] }>(
         { queryKey: TRANSACTION_QUERY_KEYS.lists() },
         (oldData) => {
           if (!oldData) return oldData;
@@ -94,6 +93,16 @@ export const useDistinctNotes = (owner: string) => {
   })
 }
 
+export const useNoteSuggestions = (owner: string, prefix: string) => {
+  return useQuery({
+    queryKey: ["notes", "suggest", owner, prefix.trim().toLowerCase()],
+    queryFn: () => suggestNotes(owner, prefix.trim()),
+    enabled: prefix.trim().length > 0,
+    placeholderData: keepPreviousData,
+    staleTime: 60 * 1000,
+  })
+}
+
 export const useDeleteTransaction = () => {
   const queryClient = useQueryClient();
 
@@ -104,12 +113,12 @@ export const useDeleteTransaction = () => {
       await queryClient.cancelQueries({ queryKey: TRANSACTION_QUERY_KEYS.lists() });
 
       // Snapshot the previous value for rollback on error
-      const previousData = queryClient.getQueriesData<{ pages: PageResponse<Transaction>[], pageParams: number[] }>({
+      const previousData = queryClient.getQueriesData<{ pages: PageResponse<Transaction>[], pageParams: (string | null)[] }>({
         queryKey: TRANSACTION_QUERY_KEYS.lists()
       });
 
       // Optimistically remove the transaction from the UI immediately
-      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: number[] }>(
+      queryClient.setQueriesData<{ pages: PageResponse<Transaction>[], pageParams: (string | null)[] }>(
         { queryKey: TRANSACTION_QUERY_KEYS.lists() },
         (oldData) => {
           if (!oldData) return oldData;
@@ -117,7 +126,6 @@ export const useDeleteTransaction = () => {
           const newPages = oldData.pages.map(page => ({
             ...page,
             content: page.content.filter(transaction => transaction.id !== deletedId),
-            totalElements: page.totalElements - 1,
           }));
 
           return {
@@ -5,6 +5,7 @@ import { Transaction, TransactionType } from '../types/transaction';
 export interface GetTransactionsParams {
   page?: number;
   size?: number;
+  cursor?: string;
 }
 
 export interface CreateTransactionRequest {
@@ -25,9 +26,9 @@ export interface CreateTransactionRequest {
  * Get all transactions with pagination
  */
 export const getAllTransactions = async (params: GetTransactionsParams = {}): Promise<PageResponse<Transaction>> => {
-  const { page = 0, size = 20 } = params;
+  const { page = 0, size = 20, cursor } = params;
   const response = await apiClient.get<PageResponse<Transaction>>('/api/transactions', {
-    params: { page, size },
+    params: { page, size, cursor },
   });
   return response.data;
 };
@@ -53,6 +54,16 @@ export const getDistinctNotes = async (owner: string) => {
   return response.data;
 }
 
+/**
+ * Get the most used notes starting with a prefix
+ */
+export const suggestNotes = async (owner: string, prefix: string, limit: number = 10) => {
+  const response = await apiClient.get<string[]>('/api/transactions/notes/suggest', {
+    params: { owner, prefix, limit },
+  });
+  return response.data;
+}
+
 /**
  * Delete a transaction
  */
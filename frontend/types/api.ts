@@ -2,8 +2,7 @@ export interface PageResponse<T> {
   content: T[];
   pageNumber: number;
   pageSize: number;
-  totalElements: number;
-  totalPages: number;
   hasNext: boolean;
   hasPrevious: boolean;
+  nextCursor: string | null;
 }
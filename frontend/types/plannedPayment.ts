@@ -37,4 +37,6 @@ export interface PlannedPayment {
   confirmationType: ConfirmationType;
   status: PaymentStatus;
   nextDueDate: string;
+  occurrenceCount: number | null;
+  lastConfirmedDate: string | null;
 }